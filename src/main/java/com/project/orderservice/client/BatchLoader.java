@@ -0,0 +1,142 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Resolves many ids of one downstream resource in as few round trips as possible. Uses the service's
+ * batch endpoint when it exists and otherwise fans the single-id lookups out concurrently on a bounded
+ * executor. A batch endpoint answering 404/405, or 400 because the service routes /batch to /{id},
+ * is taken as missing and not tried again until the retry interval has passed.
+ * Ids unknown to the service are absent from the result.
+ * Batch calls carry at most {@link #MAX_IDS_PER_BATCH} ids, since the ids travel in the query string.
+ */
+public class BatchLoader<T> {
+    
+    // Keeps the request line well under the 8 KB that servers and proxies commonly accept
+    static final int MAX_IDS_PER_BATCH = 100;
+    
+    private final Function<List<Long>, List<T>> batchLookup;
+    private final Function<Long, T> singleLookup;
+    private final Function<T, Long> idOf;
+    private final Executor executor;
+    private final long batchRetryIntervalMillis;
+    
+    private volatile long batchUnsupportedUntil = 0L;
+    
+    public BatchLoader(Function<List<Long>, List<T>> batchLookup, Function<Long, T> singleLookup, Function<T, Long> idOf,
+            Executor executor, Duration batchRetryInterval) {
+        this.batchLookup = batchLookup;
+        this.singleLookup = singleLookup;
+        this.idOf = idOf;
+        this.executor = executor;
+        this.batchRetryIntervalMillis = batchRetryInterval.toMillis();
+    }
+    
+    public Map<Long, T> load(Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+        
+        List<Long> pending = new ArrayList<>(distinctIds);
+        Map<Long, T> found = new LinkedHashMap<>();
+        int from = 0;
+        if (batchAvailable()) {
+            try {
+                for (; from < pending.size(); from += MAX_IDS_PER_BATCH) {
+                    List<Long> chunk = pending.subList(from, Math.min(from + MAX_IDS_PER_BATCH, pending.size()));
+                    found.putAll(index(batchLookup.apply(new ArrayList<>(chunk))));
+                }
+                return found;
+            } catch (FeignException.NotFound | FeignException.MethodNotAllowed | FeignException.BadRequest e) {
+                batchMissing();
+            }
+        }
+        
+        // Chunks already answered by the batch endpoint are kept; only the rest is fanned out
+        found.putAll(fanOut(pending.subList(from, pending.size())));
+        return found;
+    }
+    
+    // Shared with callers that make the batch calls themselves, such as the reactive customer lookups
+    boolean batchAvailable() {
+        return System.currentTimeMillis() >= batchUnsupportedUntil;
+    }
+    
+    void batchMissing() {
+        batchUnsupportedUntil = System.currentTimeMillis() + batchRetryIntervalMillis;
+    }
+    
+    static boolean batchEndpointMissing(Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            int status = e.getStatusCode().value();
+            return status == 404 || status == 405 || status == 400;
+        }
+        return error instanceof FeignException.NotFound || error instanceof FeignException.MethodNotAllowed
+                || error instanceof FeignException.BadRequest;
+    }
+    
+    static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_BATCH) {
+            chunks.add(ids.subList(from, Math.min(from + MAX_IDS_PER_BATCH, ids.size())));
+        }
+        return chunks;
+    }
+    
+    private Map<Long, T> fanOut(List<Long> ids) {
+        List<CompletableFuture<T>> lookups = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            lookups.add(CompletableFuture.supplyAsync(() -> lookupOrNull(id), executor));
+        }
+        
+        List<T> found = new ArrayList<>(lookups.size());
+        try {
+            for (CompletableFuture<T> lookup : lookups) {
+                found.add(lookup.join());
+            }
+        } catch (CompletionException e) {
+            lookups.forEach(lookup -> lookup.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return index(found);
+    }
+    
+    private T lookupOrNull(Long id) {
+        try {
+            return singleLookup.apply(id);
+        } catch (FeignException.NotFound e) {
+            return null;
+        }
+    }
+    
+    private Map<Long, T> index(List<T> values) {
+        Map<Long, T> byId = new LinkedHashMap<>();
+        if (values != null) {
+            for (T value : values) {
+                if (value != null) {
+                    byId.put(idOf.apply(value), value);
+                }
+            }
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,280 @@
+package com.project.orderservice.client;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import com.project.orderservice.dto.CustomerDto;
+import com.project.orderservice.dto.LoyaltyActivityDto;
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bounded, TTL-evicting in-process cache of customers in front of the customer-service Feign client.
+ * Customers that do not exist can optionally be remembered for a shorter time so that repeated
+ * lookups of unknown ids do not reach customer-service either.
+ * Remote calls go through a circuit breaker and bulkhead; when customer-service is failing or shed,
+ * the last known copy of a customer is served so name enrichment keeps working.
+ * The reactive read API looks customers up through {@link #getCustomerByIdReactive} and
+ * {@link #getCustomersByIdsReactive}, which share the same caches but call customer-service through
+ * {@link ReactiveCustomerClient}.
+ */
+@Component
+@Primary
+public class CachingCustomerClient implements CustomerClient {
+    
+    private static final String GET_CUSTOMER = "CustomerClient#getCustomerById(Long)";
+    
+    private final CustomerClient delegate;
+    private final ReactiveCustomerClient reactiveDelegate;
+    private final DownstreamGuard guard;
+    private final AsyncCache<Long, CustomerDto> customers;
+    private final Cache<Long, CustomerDto> lastKnownCustomers;
+    private final Cache<Long, FeignException> missingCustomers;
+    private final SingleFlight<Long, CustomerDto> customerFlights;
+    
+    @Autowired
+    public CachingCustomerClient(
+            @Qualifier("customerFeignClient") CustomerClient delegate,
+            ReactiveCustomerClient reactiveDelegate,
+            MeterRegistry meterRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            @Value("${order.customer-cache.maximum-size:10000}") long maximumSize,
+            @Value("${order.customer-cache.ttl:5m}") Duration ttl,
+            @Value("${order.customer-cache.stale-ttl:24h}") Duration staleTtl,
+            @Value("${order.customer-cache.negative-caching-enabled:true}") boolean negativeCachingEnabled,
+            @Value("${order.customer-cache.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${order.customer-cache.coalesce-timeout:1s}") Duration coalesceTimeout) {
+        this.delegate = delegate;
+        this.reactiveDelegate = reactiveDelegate;
+        this.guard = new DownstreamGuard("customer-service", circuitBreakerRegistry, bulkheadRegistry);
+        this.customerFlights = new SingleFlight<>("customers", coalesceTimeout, meterRegistry);
+        this.customers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.lastKnownCustomers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(staleTtl)
+                .build();
+        this.missingCustomers = negativeCachingEnabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(negativeTtl)
+                        .recordStats()
+                        .build()
+                : null;
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, customers, "customers");
+        if (missingCustomers != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, missingCustomers, "customers.missing");
+        }
+    }
+    
+    @Override
+    public CustomerDto getCustomerById(Long id) {
+        if (missingCustomers != null) {
+            FeignException notFound = missingCustomers.getIfPresent(id);
+            if (notFound != null) {
+                throw FeignExceptions.copy(notFound, GET_CUSTOMER);
+            }
+        }
+        
+        try {
+            return loadShared(id);
+        } catch (FeignException.NotFound e) {
+            rememberMissing(id, e);
+            throw e;
+        } catch (FeignException | ServiceUnavailableException e) {
+            CustomerDto lastKnown = lastKnownCustomers.getIfPresent(id);
+            if (lastKnown != null) {
+                return lastKnown;
+            }
+            throw e;
+        }
+    }
+    
+    // Cached customers are answered locally and only the misses go to customer-service, in one call
+    @Override
+    public List<CustomerDto> getCustomersByIds(List<Long> ids) {
+        List<CustomerDto> found = new ArrayList<>(ids.size());
+        List<Long> misses = cachedOrMissing(ids, found);
+        if (misses.isEmpty()) {
+            return found;
+        }
+        
+        try {
+            remember(guard.call(() -> delegate.getCustomersByIds(misses)), found);
+        } catch (FeignException.NotFound | FeignException.MethodNotAllowed | FeignException.BadRequest e) {
+            // customer-service has no batch endpoint; CustomerBatchLoader falls back to single lookups
+            throw e;
+        } catch (FeignException | ServiceUnavailableException e) {
+            addLastKnown(misses, found);
+        }
+        return found;
+    }
+    
+    // Same as getCustomersByIds without blocking; a missing batch endpoint is signalled as the error
+    public Mono<List<CustomerDto>> getCustomersByIdsReactive(List<Long> ids) {
+        List<CustomerDto> found = new ArrayList<>(ids.size());
+        List<Long> misses = cachedOrMissing(ids, found);
+        if (misses.isEmpty()) {
+            return Mono.just(found);
+        }
+        return Mono.fromFuture(() -> guard.callAsync(() -> reactiveDelegate.getCustomersByIds(misses).toFuture()))
+                .map(loaded -> {
+                    remember(loaded, found);
+                    return found;
+                })
+                .onErrorResume(error -> {
+                    if (BatchLoader.batchEndpointMissing(error)) {
+                        return Mono.error(error);
+                    }
+                    addLastKnown(misses, found);
+                    return Mono.just(found);
+                });
+    }
+    
+    // Never blocks: a miss subscribes to the shared load, and a blocking caller arriving meanwhile joins it too
+    public Mono<CustomerDto> getCustomerByIdReactive(Long id) {
+        if (missingCustomers != null) {
+            FeignException notFound = missingCustomers.getIfPresent(id);
+            if (notFound != null) {
+                return Mono.error(FeignExceptions.copy(notFound, GET_CUSTOMER));
+            }
+        }
+        // Cancelling one subscriber must not cancel a load other callers are waiting on
+        return Mono.fromFuture(() -> customers.get(id, (key, executor) -> loadCustomerAsync(key)), true)
+                .onErrorResume(error -> {
+                    if (error instanceof FeignException.NotFound notFound) {
+                        rememberMissing(id, notFound);
+                        return Mono.error(error);
+                    }
+                    if (error instanceof WebClientResponseException.NotFound notFound) {
+                        rememberMissing(id, notFound(id, notFound));
+                        return Mono.error(error);
+                    }
+                    CustomerDto lastKnown = lastKnownCustomers.getIfPresent(id);
+                    return lastKnown != null ? Mono.just(lastKnown) : Mono.error(error);
+                });
+    }
+    
+    @Override
+    public CustomerDto addLoyaltyPoints(Long customerId, LoyaltyActivityDto activityDto) {
+        CustomerDto customer = guard.call(() -> delegate.addLoyaltyPoints(customerId, activityDto));
+        if (customer != null) {
+            customers.put(customerId, CompletableFuture.completedFuture(customer));
+            lastKnownCustomers.put(customerId, customer);
+        }
+        return customer;
+    }
+    
+    // Concurrent misses for the same id share a single remote call through customerFlights. The first
+    // caller performs the call on its own thread, so no cache lock is held while waiting on the network
+    // and virtual threads are never pinned; the others park on the shared call for at most the
+    // coalesce timeout. A load already started by the reactive path is joined rather than repeated.
+    private CustomerDto loadShared(Long id) {
+        CompletableFuture<CustomerDto> cached = customers.getIfPresent(id);
+        if (cached != null) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                // The reactive load failed; fall through to a load of our own
+            }
+        }
+        
+        CustomerDto customer = customerFlights.execute(id, () -> loadCustomer(id));
+        if (customer != null) {
+            customers.put(id, CompletableFuture.completedFuture(customer));
+        }
+        return customer;
+    }
+    
+    // Adds the cached customers to found and returns the ids that have to be asked for
+    private List<Long> cachedOrMissing(List<Long> ids, List<CustomerDto> found) {
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            CompletableFuture<CustomerDto> cached = customers.getIfPresent(id);
+            if (cached != null && cached.isDone() && !cached.isCompletedExceptionally() && cached.join() != null) {
+                found.add(cached.join());
+            } else if (missingCustomers == null || missingCustomers.getIfPresent(id) == null) {
+                misses.add(id);
+            }
+        }
+        return misses;
+    }
+    
+    private void remember(List<CustomerDto> loaded, List<CustomerDto> found) {
+        if (loaded == null) {
+            return;
+        }
+        for (CustomerDto customer : loaded) {
+            customers.put(customer.getId(), CompletableFuture.completedFuture(customer));
+            lastKnownCustomers.put(customer.getId(), customer);
+            found.add(customer);
+        }
+    }
+    
+    private void addLastKnown(List<Long> misses, List<CustomerDto> found) {
+        for (Long id : misses) {
+            CustomerDto lastKnown = lastKnownCustomers.getIfPresent(id);
+            if (lastKnown != null) {
+                found.add(lastKnown);
+            }
+        }
+    }
+    
+    private void rememberMissing(Long id, FeignException notFound) {
+        if (missingCustomers != null) {
+            missingCustomers.put(id, notFound);
+        }
+        lastKnownCustomers.invalidate(id);
+    }
+    
+    // The negative cache holds Feign's 404, so a customer missing on the reactive path is missing on both
+    private static FeignException notFound(Long id, WebClientResponseException e) {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/customers/" + id, Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignExceptions.of(GET_CUSTOMER, e.getStatusCode().value(), request, Map.of(), e.getResponseBodyAsByteArray());
+    }
+    
+    private CompletableFuture<CustomerDto> loadCustomerAsync(Long id) {
+        return guard.callAsync(() -> reactiveDelegate.getCustomerById(id).toFuture())
+                .thenApply(customer -> {
+                    if (customer != null) {
+                        lastKnownCustomers.put(id, customer);
+                    }
+                    return customer;
+                });
+    }
+    
+    private CustomerDto loadCustomer(Long id) {
+        CustomerDto customer = guard.call(() -> delegate.getCustomerById(id));
+        if (customer != null) {
+            lastKnownCustomers.put(id, customer);
+        }
+        return customer;
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.project.orderservice.dto.CustomerDto;
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Resolves many customers in as few round trips as possible, through the customer-service batch
+ * endpoint or a bounded fan-out of single lookups (see {@link BatchLoader}). The single lookups go
+ * through {@link CachingCustomerClient}, so concurrent requests for the same customer share one call.
+ * The reactive API gets the same batch calls, chunking and fallback without blocking, and shares the
+ * record of whether customer-service has a batch endpoint.
+ */
+@Component
+public class CustomerBatchLoader {
+    
+    // Distinct customers looked up at once when the reactive path falls back to single lookups
+    private static final int REACTIVE_LOOKUP_CONCURRENCY = 16;
+    
+    private final CachingCustomerClient customerClient;
+    private final BatchLoader<CustomerDto> loader;
+    
+    @Autowired
+    public CustomerBatchLoader(
+            CachingCustomerClient customerClient,
+            @Qualifier("customerLookupExecutor") Executor customerLookupExecutor,
+            @Value("${order.customer-lookup.batch-retry-interval:5m}") Duration batchRetryInterval) {
+        this.customerClient = customerClient;
+        this.loader = new BatchLoader<>(customerClient::getCustomersByIds, id -> {
+            try {
+                return customerClient.getCustomerById(id);
+            } catch (FeignException | ServiceUnavailableException e) {
+                return null;
+            }
+        }, CustomerDto::getId, customerLookupExecutor, batchRetryInterval);
+    }
+    
+    /**
+     * Returns the requested customers keyed by id. Ids that are unknown, or that could not be looked up,
+     * are absent from the map: a missing name must never fail the page it decorates.
+     */
+    public Map<Long, CustomerDto> getCustomersByIds(Collection<Long> ids) {
+        try {
+            return loader.load(ids);
+        } catch (FeignException | ServiceUnavailableException e) {
+            return Map.of();
+        }
+    }
+    
+    /**
+     * Reactive counterpart of {@link #getCustomersByIds}, with the same result: ids that are unknown, or
+     * that could not be looked up, are absent from the map, and the returned Mono never fails.
+     */
+    public Mono<Map<Long, CustomerDto>> getCustomersByIdsReactive(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return Mono.defer(() -> loader.batchAvailable() ? batches(distinctIds) : fanOut(distinctIds))
+                .onErrorResume(error -> Mono.just(Map.of()));
+    }
+    
+    private Mono<Map<Long, CustomerDto>> batches(List<Long> ids) {
+        return Flux.fromIterable(BatchLoader.chunks(ids))
+                .concatMap(customerClient::getCustomersByIdsReactive)
+                .flatMapIterable(Function.identity())
+                .collectMap(CustomerDto::getId)
+                .onErrorResume(BatchLoader::batchEndpointMissing, error -> {
+                    loader.batchMissing();
+                    // Chunks already answered are cached, so the fan-out only calls for the rest
+                    return fanOut(ids);
+                });
+    }
+    
+    private Mono<Map<Long, CustomerDto>> fanOut(List<Long> ids) {
+        return Flux.fromIterable(ids)
+                .flatMap(id -> customerClient.getCustomerByIdReactive(id).onErrorResume(error -> Mono.empty()),
+                        REACTIVE_LOOKUP_CONCURRENCY)
+                .collectMap(CustomerDto::getId);
+    }
+}
@@ -6,15 +6,23 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.project.orderservice.dto.CustomerDto;
 import com.project.orderservice.dto.LoyaltyActivityDto;
 
-@FeignClient(name = "customer-service")
+import java.util.List;
+
+// Not primary: callers get CachingCustomerClient, which wraps this Feign proxy
+@FeignClient(name = "customer-service", qualifiers = "customerFeignClient", primary = false)
 public interface CustomerClient {
     @GetMapping("/api/customers/{id}")
     CustomerDto getCustomerById(@PathVariable Long id);
     
+    // Returns the customers that exist among the given ids; unknown ids are simply absent
+    @GetMapping("/api/customers/batch")
+    List<CustomerDto> getCustomersByIds(@RequestParam("ids") List<Long> ids);
+    
     @PostMapping("/api/customers/{customerId}/loyalty/points")
     CustomerDto addLoyaltyPoints(@PathVariable Long customerId, @RequestBody LoyaltyActivityDto activityDto);
 
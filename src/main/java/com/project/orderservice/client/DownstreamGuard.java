@@ -0,0 +1,66 @@
+package com.project.orderservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead for one downstream service, configured under
+ * resilience4j.circuitbreaker/bulkhead.instances.&lt;service&gt;. Calls that are shed because the breaker
+ * is open or the bulkhead is full fail immediately with {@link ServiceUnavailableException}.
+ */
+public class DownstreamGuard {
+    
+    private final String serviceName;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    
+    public DownstreamGuard(String serviceName, CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.serviceName = serviceName;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(serviceName);
+        this.bulkhead = bulkheadRegistry.bulkhead(serviceName);
+    }
+    
+    public <T> T call(Supplier<T> call) {
+        try {
+            // The breaker wraps the bulkhead, so shed calls are visible to it but ignored via configuration
+            return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, call)).get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new ServiceUnavailableException(serviceName + " is unavailable, please retry later");
+        }
+    }
+    
+    // Same guard for calls that complete asynchronously; the breaker records the outcome when the stage completes
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletionStage<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CircuitBreaker.decorateCompletionStage(circuitBreaker, Bulkhead.decorateCompletionStage(bulkhead, call)).get()
+                .whenComplete((value, error) -> {
+                    if (error == null) {
+                        result.complete(value);
+                        return;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    result.completeExceptionally(cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                            ? new ServiceUnavailableException(serviceName + " is unavailable, please retry later")
+                            : cause);
+                });
+        return result;
+    }
+    
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+// Builds Feign HTTP errors outside a Feign call, keeping the status-specific subclass (NotFound, ServiceUnavailable, ...)
+final class FeignExceptions {
+    
+    private FeignExceptions() {
+    }
+    
+    // A new instance to throw instead of one shared across threads, with the same status, request, headers and body
+    static FeignException copy(FeignException e, String methodKey) {
+        return of(methodKey, e.status(), e.request(), e.responseHeaders(), e.content());
+    }
+    
+    static FeignException of(String methodKey, int status, Request request,
+                             Map<String, Collection<String>> headers, byte[] body) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        return FeignException.errorStatus(methodKey, Response.builder()
+                .status(status)
+                .reason(httpStatus != null ? httpStatus.getReasonPhrase() : null)
+                .request(request != null ? request
+                        : Request.create(Request.HttpMethod.GET, "", Map.of(), null, StandardCharsets.UTF_8, null))
+                .headers(headers)
+                .body(body)
+                .build());
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.orderservice.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.dto.StockReservationDto;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Product-service client behind a circuit breaker and bulkhead. There is no degraded answer for stock
+ * validation, so shed calls fail fast instead of tying up request threads on a slow product-service.
+ * Concurrent lookups of the same product, e.g. a hot product during a flash sale, share one call.
+ */
+@Component
+@Primary
+public class GuardedProductClient implements ProductClient {
+    
+    private final ProductClient delegate;
+    private final DownstreamGuard guard;
+    private final SingleFlight<Long, ProductDto> productFlights;
+    
+    @Autowired
+    public GuardedProductClient(
+            @Qualifier("productFeignClient") ProductClient delegate,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${order.product-lookup.coalesce-timeout:2s}") Duration coalesceTimeout) {
+        this.delegate = delegate;
+        this.guard = new DownstreamGuard("product-service", circuitBreakerRegistry, bulkheadRegistry);
+        this.productFlights = new SingleFlight<>("products", coalesceTimeout, meterRegistry);
+    }
+    
+    // Collapsed calls take no bulkhead permit: only the shared call reaches product-service
+    @Override
+    public ProductDto getProductById(Long id) {
+        return productFlights.execute(id, () -> guard.call(() -> delegate.getProductById(id)));
+    }
+    
+    @Override
+    public List<ProductDto> getProductsByIds(List<Long> ids) {
+        return guard.call(() -> delegate.getProductsByIds(ids));
+    }
+    
+    @Override
+    public void reserveStock(StockReservationDto reservation) {
+        guard.run(() -> delegate.reserveStock(reservation));
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.exception.ResourceNotFoundException;
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Resolves many products in as few round trips as possible, through the product-service batch
+ * endpoint or a bounded fan-out of single lookups (see {@link BatchLoader}). Other product-service errors
+ * surface as the order API's own exceptions: a rejected lookup as ResourceNotFoundException, a failed or
+ * unreachable product-service as ServiceUnavailableException.
+ */
+@Component
+public class ProductBatchLoader {
+    
+    private final BatchLoader<ProductDto> loader;
+    
+    @Autowired
+    public ProductBatchLoader(
+            ProductClient productClient,
+            @Qualifier("productLookupExecutor") Executor productLookupExecutor,
+            @Value("${order.product-lookup.batch-retry-interval:5m}") Duration batchRetryInterval) {
+        this.loader = new BatchLoader<>(productClient::getProductsByIds, id -> {
+            try {
+                return productClient.getProductById(id);
+            } catch (FeignException.NotFound e) {
+                // Absent from the result
+                throw e;
+            } catch (FeignException e) {
+                if (e.status() >= 400 && e.status() < 500) {
+                    throw new ResourceNotFoundException("Product not found with id: " + id);
+                }
+                throw new ServiceUnavailableException("product-service failed looking up product " + id, e);
+            }
+        }, ProductDto::getId, productLookupExecutor, batchRetryInterval);
+    }
+    
+    /**
+     * Returns the requested products keyed by id. Ids unknown to product-service are absent from the map.
+     */
+    public Map<Long, ProductDto> getProductsByIds(Collection<Long> ids) {
+        try {
+            return loader.load(ids);
+        } catch (FeignException e) {
+            // The batch call failed with something other than a missing endpoint
+            throw new ServiceUnavailableException("product-service failed looking up products " + ids, e);
+        }
+    }
+}
@@ -4,16 +4,26 @@ package com.project.orderservice.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.dto.StockReservationDto;
 
-@FeignClient(name = "product-service")
+import java.util.List;
+
+// Not primary: callers get GuardedProductClient, which wraps this Feign proxy
+@FeignClient(name = "product-service", qualifiers = "productFeignClient", primary = false)
 public interface ProductClient {
     @GetMapping("/api/products/{id}")
     ProductDto getProductById(@PathVariable Long id);
     
-    @PutMapping("/api/products/{id}")
-    ProductDto updateProduct(@PathVariable Long id, @RequestBody ProductDto productDto);
-}
\ No newline at end of file
+    // Returns the products that exist among the given ids; unknown ids are simply absent
+    @GetMapping("/api/products/batch")
+    List<ProductDto> getProductsByIds(@RequestParam("ids") List<Long> ids);
+    
+    // Applies all adjustments atomically; answers 409 and changes nothing if any product would go negative
+    @PostMapping("/api/products/stock/reservations")
+    void reserveStock(@RequestBody StockReservationDto reservation);
+}
@@ -0,0 +1,47 @@
+package com.project.orderservice.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import com.project.orderservice.dto.CustomerDto;
+
+import java.time.Duration;
+import java.util.List;
+
+// Non-blocking counterpart of the customer-service Feign client; callers get it through CachingCustomerClient
+@Component
+public class ReactiveCustomerClient {
+    
+    private final WebClient webClient;
+    private final Duration timeout;
+    
+    @Autowired
+    public ReactiveCustomerClient(
+            @LoadBalanced WebClient.Builder webClientBuilder,
+            @Value("${order.reactive.customer-service.timeout:1s}") Duration timeout) {
+        this.webClient = webClientBuilder.clone().baseUrl("http://customer-service").build();
+        this.timeout = timeout;
+    }
+    
+    public Mono<CustomerDto> getCustomerById(Long id) {
+        return webClient.get()
+                .uri("/api/customers/{id}", id)
+                .retrieve()
+                .bodyToMono(CustomerDto.class)
+                .timeout(timeout);
+    }
+    
+    // Returns the customers that exist among the given ids; unknown ids are simply absent
+    public Mono<List<CustomerDto>> getCustomersByIds(List<Long> ids) {
+        return webClient.get()
+                .uri(uri -> uri.path("/api/customers/batch").queryParam("ids", ids).build())
+                .retrieve()
+                .bodyToFlux(CustomerDto.class)
+                .collectList()
+                .timeout(timeout);
+    }
+}
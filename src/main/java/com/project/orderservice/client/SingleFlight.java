@@ -0,0 +1,95 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one downstream call. The first caller for a key
+ * performs the call on its own thread; callers arriving while it is in flight wait for it and get the
+ * same result, or a copy of its error: the same Feign HTTP error, anything else as a
+ * {@link ServiceUnavailableException} caused by it. Nothing is remembered once the call completes,
+ * so this bounds the concurrency per key without caching anything.
+ * Waiters give up after the configured timeout with {@link ServiceUnavailableException}; the caller
+ * performing the call is bounded by the client's own timeouts.
+ * Collapsed calls and waiter timeouts are counted in orderservice.singleflight.collapsed/timeouts,
+ * tagged with the flight's name.
+ */
+public class SingleFlight<K, V> {
+    
+    private final String name;
+    private final long timeoutNanos;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsed;
+    private final Counter timeouts;
+    
+    public SingleFlight(String name, Duration timeout, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.timeoutNanos = timeout.toNanos();
+        this.collapsed = Counter.builder("orderservice.singleflight.collapsed")
+                .description("Calls that shared another caller's in-flight call instead of making their own")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("orderservice.singleflight.timeouts")
+                .description("Collapsed calls that gave up waiting for the shared call")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+    
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> pending = inFlight.putIfAbsent(key, flight);
+        if (pending != null) {
+            collapsed.increment();
+            return await(key, pending);
+        }
+        
+        try {
+            V value = call.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    private V await(K key, CompletableFuture<V> pending) {
+        try {
+            return pending.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw forWaiter(key, e.getCause());
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new ServiceUnavailableException(name + " lookup of " + key + " timed out, please retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(name + " lookup of " + key + " was interrupted");
+        }
+    }
+    
+    // Each waiter throws its own instance; a shared one would carry the first caller's stack trace and
+    // collect every thread's suppressed exceptions
+    private RuntimeException forWaiter(K key, Throwable failure) {
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure instanceof FeignException feignException && feignException.status() >= 400) {
+            return FeignExceptions.copy(feignException, name);
+        }
+        return new ServiceUnavailableException(name + " lookup of " + key + " failed: " + failure.getMessage(), failure);
+    }
+}
@@ -0,0 +1,9 @@
+package com.project.orderservice.config;
+
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableFeignClients(basePackages = "com.project.orderservice.client")
+public class FeignConfig {
+}
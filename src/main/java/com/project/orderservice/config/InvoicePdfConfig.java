@@ -0,0 +1,28 @@
+package com.project.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class InvoicePdfConfig {
+
+    // Rendering is CPU-bound, so this stays a small platform-thread pool even in the virtual-threads profile
+    @Bean(name = "invoicePdfExecutor")
+    public AsyncTaskExecutor invoicePdfExecutor(
+            @Value("${order.invoice-pdf.render-concurrency:4}") int renderConcurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(renderConcurrency);
+        executor.setMaxPoolSize(renderConcurrency);
+        executor.setQueueCapacity(renderConcurrency * 4);
+        executor.setThreadNamePrefix("invoice-pdf-");
+        // When several exports saturate the pool, the exporting thread renders its next invoice itself
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
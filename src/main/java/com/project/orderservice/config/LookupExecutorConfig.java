@@ -0,0 +1,52 @@
+package com.project.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Bounded pools used to fan single-id lookups out when a downstream batch endpoint is unavailable
+@Configuration
+public class LookupExecutorConfig {
+
+    @Bean(name = "productLookupExecutor")
+    public AsyncTaskExecutor productLookupExecutor(
+            @Value("${order.product-lookup.max-concurrency:8}") int maxConcurrency,
+            @Value("${order.product-lookup.queue-capacity:256}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return lookupExecutor("product-lookup-", maxConcurrency, queueCapacity, virtualThreads);
+    }
+
+    @Bean(name = "customerLookupExecutor")
+    public AsyncTaskExecutor customerLookupExecutor(
+            @Value("${order.customer-lookup.max-concurrency:8}") int maxConcurrency,
+            @Value("${order.customer-lookup.queue-capacity:256}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return lookupExecutor("customer-lookup-", maxConcurrency, queueCapacity, virtualThreads);
+    }
+
+    private static AsyncTaskExecutor lookupExecutor(String threadNamePrefix, int maxConcurrency, int queueCapacity,
+            boolean virtualThreads) {
+        if (virtualThreads) {
+            // One virtual thread per lookup; the concurrency limit still caps load on the downstream service
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        // When saturated, the request thread performs the lookup itself instead of failing the request
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "order.events")
+@Data
+public class OrderEventProperties {
+    // How long a publisher waits for room in a full subscriber queue before the event is dropped
+    private Duration publishTimeout = Duration.ofMillis(100);
+    
+    // Keyed by subscriber name; subscribers without an entry use the defaults below
+    private Map<String, Subscriber> subscribers = new HashMap<>();
+    
+    @Data
+    public static class Subscriber {
+        private int capacity = 1024;
+        
+        private int batchSize = 100;
+        
+        // How long a partial batch waits for more events before it is handed over
+        private Duration maxWait = Duration.ofMillis(50);
+    }
+    
+    public Subscriber subscriber(String name) {
+        return subscribers.getOrDefault(name, new Subscriber());
+    }
+}
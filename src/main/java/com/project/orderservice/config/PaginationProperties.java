@@ -0,0 +1,25 @@
+package com.project.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "order.pagination")
+@Data
+public class PaginationProperties {
+    private int defaultPageSize = 50;
+    
+    private int maxPageSize = 200;
+    
+    // Most rows the deprecated unpaged listings return; larger results are refused, never truncated
+    private int maxListSize = 1000;
+    
+    // Clamps a client supplied page size to [1, maxPageSize]
+    public int resolvePageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+}
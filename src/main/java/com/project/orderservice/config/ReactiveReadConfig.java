@@ -0,0 +1,38 @@
+package com.project.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class ReactiveReadConfig {
+
+    // JPA blocks, so the reactive read API runs its queries here. Sized like the connection pool:
+    // excess requests wait in this queue instead of holding a thread while they wait for a connection
+    @Bean(name = "orderDbScheduler", destroyMethod = "dispose")
+    public Scheduler orderDbScheduler(
+            @Value("${order.reactive.db-threads:10}") int threads,
+            @Value("${order.reactive.db-queue-capacity:10000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads, queueCapacity, "order-db");
+    }
+
+    // Service ids resolve through the load balancer, as they do for the Feign clients
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(
+            @Value("${order.reactive.connect-timeout:500ms}") Duration connectTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        return WebClient.builder().clientConnector(new JdkClientHttpConnector(httpClient));
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Read replica connection; pool settings go under order.datasource.replica.hikari
+@ConfigurationProperties(prefix = "order.datasource.replica")
+@Data
+public class ReplicaDataSourceProperties {
+    private String url;
+    
+    private String username;
+    
+    private String password;
+    
+    // Read-only transactions fall back to the primary while the replica is further behind than this
+    private Duration maxLag = Duration.ofSeconds(5);
+}
@@ -0,0 +1,107 @@
+package com.project.orderservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Measures replication lag with a heartbeat row: each probe stamps the row on the primary and reads
+ * it back from the replica, so the lag is how old the replica's copy is. The replica is usable only
+ * while that stays within the configured tolerance; until the first good probe, and whenever the
+ * replica cannot be read, read-only transactions go to the primary.
+ */
+public class ReplicaLagMonitor implements InitializingBean {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    
+    private volatile boolean replicaUsable;
+    private volatile long lagMillis = -1;
+    
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        if (meterRegistry != null) {
+            Gauge.builder("orderservice.datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                    .baseUnit("milliseconds")
+                    .description("Age of the replica's heartbeat row, -1 when unknown")
+                    .register(meterRegistry);
+        }
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        // Created on the primary only; it reaches the replica through replication like any other table
+        primary.execute("create table if not exists replica_heartbeat (id int primary key, beat_at timestamp(6) not null)");
+    }
+    
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+    
+    @Scheduled(fixedDelayString = "${order.datasource.replica.heartbeat-interval:PT1S}")
+    public void probe() {
+        try {
+            writeHeartbeat();
+        } catch (DataAccessException e) {
+            // Without a fresh heartbeat the lag cannot be told apart from an idle primary
+            markUnusable("heartbeat could not be written: " + e.getMessage());
+            return;
+        }
+        checkLag();
+    }
+    
+    void writeHeartbeat() {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (primary.update("update replica_heartbeat set beat_at = ? where id = 1", now) == 0) {
+            primary.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", now);
+        }
+    }
+    
+    void checkLag() {
+        List<Timestamp> beats;
+        try {
+            beats = replica.queryForList("select beat_at from replica_heartbeat where id = 1", Timestamp.class);
+        } catch (DataAccessException e) {
+            markUnusable("replica could not be read: " + e.getMessage());
+            return;
+        }
+        if (beats.isEmpty()) {
+            markUnusable("no heartbeat has reached the replica yet");
+            return;
+        }
+        lagMillis = Math.max(0, Duration.between(beats.get(0).toInstant(), Instant.now()).toMillis());
+        boolean usable = lagMillis <= maxLag.toMillis();
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Replica caught up ({} ms behind); routing read-only transactions to it", lagMillis);
+            } else {
+                log.warn("Replica is {} ms behind (tolerance {} ms); routing reads to the primary", lagMillis, maxLag.toMillis());
+            }
+        }
+        replicaUsable = usable;
+    }
+    
+    private void markUnusable(String reason) {
+        lagMillis = -1;
+        if (replicaUsable) {
+            log.warn("Routing reads to the primary: {}", reason);
+        }
+        replicaUsable = false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.orderservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (outbox delivery, purges); tests switch them off and drive the jobs directly
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "order.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,62 @@
+package com.project.orderservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Orders, items, invoices and loyalty outbox entries used IDENTITY columns before moving to pooled
+ * sequences. MySQL has no sequences, so Hibernate emulates each one with a single-row table that it
+ * creates starting at 1;
+ * on a database that already holds rows, that row is raised past the highest existing id (plus one
+ * allocation block) before anything is inserted. Re-running it is a no-op.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SequenceTableInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceTableInitializer.class);
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCE_TABLES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items",
+            "invoices_seq", "invoices",
+            "loyalty_outbox_seq", "loyalty_outbox");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceTableInitializer(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(database)) {
+            // Databases with native sequences get them created fresh alongside the schema
+            return;
+        }
+
+        SEQUENCE_TABLES.forEach((sequenceTable, entityTable) -> {
+            int raised = jdbcTemplate.update(
+                    "update " + sequenceTable + " set next_val = "
+                            + "(select coalesce(max(id), 0) + ? + 1 from " + entityTable + ") "
+                            + "where next_val < (select coalesce(max(id), 0) + ? from " + entityTable + ")",
+                    ALLOCATION_SIZE, ALLOCATION_SIZE);
+            if (raised > 0) {
+                log.info("Raised id sequence {} past the existing rows of {}", sequenceTable, entityTable);
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.project.orderservice.controller;
+
+
+/**
+ * Strong ETags derived from an entity's @Version column.
+ * <p>
+ * The version is read before the response body is built, so a write that lands in between yields a body newer
+ * than its tag; the client's next conditional GET then simply misses and gets the newer state. Enrichment from
+ * other services (the order's customer name) is not part of the version.
+ */
+final class ETags {
+    
+    private ETags() {
+    }
+    
+    static String forVersion(long version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -3,9 +3,15 @@ package com.project.orderservice.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.project.orderservice.dto.CursorPageDto;
 import com.project.orderservice.dto.InvoiceDto;
 import com.project.orderservice.service.InvoiceService;
 
@@ -24,10 +30,40 @@ public class InvoiceController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<InvoiceDto> getInvoiceById(@PathVariable Long id) {
+    public ResponseEntity<InvoiceDto> getInvoiceById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(ETags.forVersion(invoiceService.getInvoiceVersion(id)))) {
+            return null;
+        }
         return ResponseEntity.ok(invoiceService.getInvoiceById(id));
     }
     
+    // The invoice is looked up before the response starts, so a missing id is still a plain 404
+    @GetMapping(value = "/{id}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<StreamingResponseBody> getInvoicePdf(@PathVariable Long id) {
+        InvoiceDto invoice = invoiceService.getInvoiceById(id);
+        StreamingResponseBody body = outputStream -> invoiceService.writeInvoicePdf(invoice, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(invoice.getInvoiceNumber() + ".pdf").build().toString())
+                .body(body);
+    }
+    
+    @GetMapping(value = "/pdf/archive", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> getInvoicePdfArchive(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        StreamingResponseBody body = outputStream -> invoiceService.writeInvoicePdfArchive(startDate, endDate, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("invoices-" + startDate.toLocalDate() + "-" + endDate.toLocalDate() + ".zip").build().toString())
+                .body(body);
+    }
+    
     @GetMapping("/order/{orderId}")
     public ResponseEntity<InvoiceDto> getInvoiceByOrderId(@PathVariable Long orderId) {
         return ResponseEntity.ok(invoiceService.getInvoiceByOrderId(orderId));
@@ -38,11 +74,14 @@ public class InvoiceController {
         return ResponseEntity.ok(invoiceService.getInvoiceByInvoiceNumber(invoiceNumber));
     }
     
+    // Deprecated in favour of the /page endpoints; more than order.pagination.max-list-size invoices is a 400
+    @Deprecated
     @GetMapping
     public ResponseEntity<List<InvoiceDto>> getAllInvoices() {
         return ResponseEntity.ok(invoiceService.getAllInvoices());
     }
     
+    @Deprecated
     @GetMapping("/date-range")
     public ResponseEntity<List<InvoiceDto>> getInvoicesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
@@ -50,6 +89,22 @@ public class InvoiceController {
         return ResponseEntity.ok(invoiceService.getInvoicesByDateRange(startDate, endDate));
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<InvoiceDto>> getInvoicesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(invoiceService.getInvoicesPage(cursor, size));
+    }
+    
+    @GetMapping("/date-range/page")
+    public ResponseEntity<CursorPageDto<InvoiceDto>> getInvoicesByDateRangePage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(invoiceService.getInvoicesByDateRangePage(startDate, endDate, cursor, size));
+    }
+    
     @PatchMapping("/{id}/payment-status")
     public ResponseEntity<InvoiceDto> updateInvoicePaymentStatus(
             @PathVariable Long id,
@@ -1,17 +1,30 @@
 package com.project.orderservice.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.project.orderservice.dto.BulkStatusUpdateRequest;
+import com.project.orderservice.dto.BulkStatusUpdateResponse;
+import com.project.orderservice.dto.CursorPageDto;
 import com.project.orderservice.dto.OrderDto;
 import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.service.CustomerNameEnricher;
+import com.project.orderservice.service.IdempotencyKeyStore;
 import com.project.orderservice.service.OrderService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -19,23 +32,67 @@ import java.util.List;
 @RequestMapping("/api/orders")
 public class OrderController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_BATCH_SIZE = 5000;
+    
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    
     private final OrderService orderService;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final CustomerNameEnricher customerNameEnricher;
+    private final ObjectMapper objectMapper;
     
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, IdempotencyKeyStore idempotencyKeyStore,
+            CustomerNameEnricher customerNameEnricher, ObjectMapper objectMapper) {
         this.orderService = orderService;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.customerNameEnricher = customerNameEnricher;
+        this.objectMapper = objectMapper;
     }
     
+    // With an Idempotency-Key, retries of the same request get the original order back instead of a second one
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderDto orderDto) {
-        return new ResponseEntity<>(orderService.createOrder(orderDto), HttpStatus.CREATED);
+    public ResponseEntity<OrderDto> createOrder(
+            @Valid @RequestBody OrderDto orderDto,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(orderService.createOrder(orderDto), HttpStatus.CREATED);
+        }
+        IdempotencyKeyStore.Result<OrderDto> result = idempotencyKeyStore.execute(
+                idempotencyKey, fingerprintOf(orderDto), OrderDto.class, () -> orderService.createOrder(orderDto));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+    
+    // orderDate defaults to the time of deserialization, so a retry that omits it must still match
+    private OrderDto fingerprintOf(OrderDto orderDto) {
+        OrderDto fingerprint = objectMapper.convertValue(orderDto, OrderDto.class);
+        fingerprint.setOrderDate(null);
+        return fingerprint;
+    }
+    
+    // Created together or not at all: one stock reservation and one transaction for the whole batch
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderDto>> createOrders(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid OrderDto> orderDtos) {
+        return new ResponseEntity<>(orderService.createOrders(orderDtos), HttpStatus.CREATED);
     }
     
+    // Polls with a current If-None-Match cost one version lookup: no item load, no customer-service call
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(ETags.forVersion(orderService.getOrderVersion(id)))) {
+            return null;
+        }
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
     
+    // The unpaged lists are deprecated in favour of the /page endpoints and refuse more than
+    // order.pagination.max-list-size orders with a 400. Only pages get customer names
+    @Deprecated
     @GetMapping
     public ResponseEntity<List<OrderDto>> getAllOrders() {
         return ResponseEntity.ok(orderService.getAllOrders());
@@ -53,26 +110,94 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
     }
     
+    // Warehouse scans: many orders to one status in a single transaction, with a result per id
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateOrderStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getOrderIds(), request.getStatus()));
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         orderService.deleteOrder(id);
         return ResponseEntity.noContent().build();
     }
     
+    @Deprecated
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<OrderDto>> getOrdersByCustomerId(@PathVariable Long customerId) {
         return ResponseEntity.ok(orderService.getOrdersByCustomerId(customerId));
     }
     
+    @Deprecated
     @GetMapping("/status/{status}")
     public ResponseEntity<List<OrderDto>> getOrdersByStatus(@PathVariable OrderStatus status) {
         return ResponseEntity.ok(orderService.getOrdersByStatus(status));
     }
     
+    @Deprecated
     @GetMapping("/date-range")
     public ResponseEntity<List<OrderDto>> getOrdersByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         return ResponseEntity.ok(orderService.getOrdersByDateRange(startDate, endDate));
     }
+    
+    // Pages get their customer names from one lookup for the distinct customers they contain
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<OrderDto>> getOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(customerNameEnricher.enrich(orderService.getOrdersPage(cursor, size)));
+    }
+    
+    @GetMapping("/customer/{customerId}/page")
+    public ResponseEntity<CursorPageDto<OrderDto>> getOrdersByCustomerIdPage(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(customerNameEnricher.enrich(orderService.getOrdersByCustomerIdPage(customerId, cursor, size)));
+    }
+    
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<CursorPageDto<OrderDto>> getOrdersByStatusPage(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(customerNameEnricher.enrich(orderService.getOrdersByStatusPage(status, cursor, size)));
+    }
+    
+    @GetMapping("/customer/{customerId}/status/{status}/page")
+    public ResponseEntity<CursorPageDto<OrderDto>> getOrdersByCustomerIdAndStatusPage(
+            @PathVariable Long customerId,
+            @PathVariable OrderStatus status,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(customerNameEnricher.enrich(orderService.getOrdersByCustomerIdAndStatusPage(
+                customerId, status, startDate, endDate, cursor, size)));
+    }
+    
+    @GetMapping("/date-range/page")
+    public ResponseEntity<CursorPageDto<OrderDto>> getOrdersByDateRangePage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(customerNameEnricher.enrich(orderService.getOrdersByDateRangePage(startDate, endDate, cursor, size)));
+    }
+    
+    // Streams every order as newline-delimited JSON without materializing the table
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = outputStream -> orderService.streamAllOrders(orderDto -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(orderDto));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
 }
@@ -0,0 +1,50 @@
+package com.project.orderservice.controller;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.service.ReactiveOrderService;
+
+import java.time.LocalDateTime;
+
+// Same reads as OrderController, but served asynchronously: the request thread returns to Tomcat
+// while the query and the customer lookups run, so slow reads no longer bound concurrency
+@RestController
+@RequestMapping("/api/reactive/orders")
+public class ReactiveOrderController {
+    
+    private final ReactiveOrderService reactiveOrderService;
+    
+    @Autowired
+    public ReactiveOrderController(ReactiveOrderService reactiveOrderService) {
+        this.reactiveOrderService = reactiveOrderService;
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<OrderDto> getOrderById(@PathVariable Long id) {
+        return reactiveOrderService.getOrderById(id);
+    }
+    
+    @GetMapping("/customer/{customerId}")
+    public Flux<OrderDto> getOrdersByCustomerId(@PathVariable Long customerId) {
+        return reactiveOrderService.getOrdersByCustomerId(customerId);
+    }
+    
+    @GetMapping("/status/{status}")
+    public Flux<OrderDto> getOrdersByStatus(@PathVariable OrderStatus status) {
+        return reactiveOrderService.getOrdersByStatus(status);
+    }
+    
+    @GetMapping("/date-range")
+    public Flux<OrderDto> getOrdersByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return reactiveOrderService.getOrdersByDateRange(startDate, endDate);
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.orderservice.controller;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.project.orderservice.dto.RollupRebuildDto;
+import com.project.orderservice.dto.SalesRollupDto;
+import com.project.orderservice.dto.SalesTotalDto;
+import com.project.orderservice.model.RollupDimension;
+import com.project.orderservice.model.RollupGranularity;
+import com.project.orderservice.service.ReportService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports/sales")
+public class ReportController {
+    
+    private final ReportService reportService;
+    
+    @Autowired
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+    
+    // One row per bucket and product, customer or status; pass key to follow a single one over time
+    @GetMapping
+    public ResponseEntity<List<SalesRollupDto>> getSalesRollups(
+            @RequestParam RollupDimension dimension,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String key) {
+        return ResponseEntity.ok(reportService.getSalesRollups(dimension, granularity, startDate, endDate, key));
+    }
+    
+    @GetMapping("/totals")
+    public ResponseEntity<List<SalesTotalDto>> getSalesTotals(
+            @RequestParam RollupDimension dimension,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(reportService.getSalesTotals(dimension, granularity, startDate, endDate));
+    }
+    
+    @PostMapping("/rebuild")
+    public ResponseEntity<RollupRebuildDto> rebuildSalesRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(reportService.rebuildSalesRollups(startDate, endDate));
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.orderservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+import com.project.orderservice.model.OrderStatus;
+
+@Data
+public class BulkStatusUpdateRequest {
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 5000, message = "At most 5000 orders can be updated at once")
+    private List<Long> orderIds;
+    
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+}
@@ -0,0 +1,19 @@
+package com.project.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+import com.project.orderservice.model.OrderStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+    private OrderStatus status;
+    private int updatedCount;
+    // One entry per requested id, in request order
+    private List<StatusUpdateResult> results;
+}
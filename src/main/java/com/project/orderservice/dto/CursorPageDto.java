@@ -0,0 +1,19 @@
+package com.project.orderservice.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> items = new ArrayList<>();
+    
+    // Opaque cursor to pass back for the next page; null on the last page
+    private String nextCursor;
+}
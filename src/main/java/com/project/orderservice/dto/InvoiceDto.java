@@ -2,11 +2,15 @@ package com.project.orderservice.dto;
 
 
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class InvoiceDto {
     private Long id;
     
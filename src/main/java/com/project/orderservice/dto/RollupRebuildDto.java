@@ -0,0 +1,17 @@
+package com.project.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRebuildDto {
+    // Rebuilt window, widened to whole days
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private long ordersProcessed;
+}
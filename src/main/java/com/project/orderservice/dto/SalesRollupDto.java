@@ -0,0 +1,19 @@
+package com.project.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupDto {
+    private LocalDateTime bucketStart;
+    private String key;
+    private long orderCount;
+    private long units;
+    private double revenue;
+    private double discount;
+}
@@ -0,0 +1,16 @@
+package com.project.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesTotalDto {
+    private String key;
+    private long orderCount;
+    private long units;
+    private double revenue;
+    private double discount;
+}
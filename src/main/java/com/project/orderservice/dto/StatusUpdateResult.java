@@ -0,0 +1,26 @@
+package com.project.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.project.orderservice.model.OrderStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusUpdateResult {
+    
+    public enum Outcome {
+        UPDATED,
+        // Already in the requested final status; nothing was changed
+        UNCHANGED,
+        NOT_FOUND,
+        REJECTED
+    }
+    
+    private Long orderId;
+    private Outcome outcome;
+    private OrderStatus previousStatus;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.project.orderservice.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDto {
+    private Long productId;
+    
+    // Negative to reserve stock, positive to give it back
+    private Integer delta;
+}
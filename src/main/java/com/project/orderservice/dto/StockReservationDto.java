@@ -0,0 +1,18 @@
+package com.project.orderservice.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDto {
+    private String referenceId;
+    
+    private List<StockAdjustmentDto> adjustments = new ArrayList<>();
+}
@@ -0,0 +1,4 @@
+package com.project.orderservice.event;
+
+public record OrderCreated(Long orderId, Long customerId, Double totalAmount) implements OrderEvent {
+}
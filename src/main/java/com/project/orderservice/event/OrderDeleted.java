@@ -0,0 +1,4 @@
+package com.project.orderservice.event;
+
+public record OrderDeleted(Long orderId, Long customerId) implements OrderEvent {
+}
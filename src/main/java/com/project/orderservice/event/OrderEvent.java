@@ -0,0 +1,9 @@
+package com.project.orderservice.event;
+
+/**
+ * Something that happened to an order, published by {@link OrderEventBus} once the transaction that made it commits.
+ */
+public sealed interface OrderEvent permits OrderCreated, OrderStatusChanged, OrderDeleted {
+    
+    Long orderId();
+}
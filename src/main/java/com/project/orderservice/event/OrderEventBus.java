@@ -0,0 +1,210 @@
+package com.project.orderservice.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.orderservice.config.OrderEventProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process pipeline for order side effects.
+ * Events published inside a transaction are held until it commits and discarded if it rolls back, so
+ * subscribers never see an order that does not exist. Each subscriber gets a bounded array-backed queue
+ * and one consumer thread that hands it events in batches of up to batch-size, waiting at most max-wait
+ * to fill one. When a queue is full the committing thread waits for room (the backpressure), at most
+ * publish-timeout for all the events of one commit together, then drops what does not fit and counts
+ * it in orderservice.events.dropped. Queued events are
+ * lost if the process dies, so subscribers whose work must happen pair this with a sweep.
+ */
+@Component
+public class OrderEventBus {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderEventBus.class);
+    
+    private static final long IDLE_POLL_MS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+    
+    private final List<Channel> channels;
+    private final Duration publishTimeout;
+    private final MeterRegistry meterRegistry;
+    
+    @Autowired
+    public OrderEventBus(List<OrderEventSubscriber> subscribers, OrderEventProperties properties, MeterRegistry meterRegistry) {
+        this.publishTimeout = properties.getPublishTimeout();
+        this.meterRegistry = meterRegistry;
+        this.channels = subscribers.stream()
+                .map(subscriber -> new Channel(subscriber, properties.subscriber(subscriber.name())))
+                .toList();
+    }
+    
+    @PostConstruct
+    public void start() {
+        channels.forEach(Channel::start);
+    }
+    
+    // Consumers deliver what is already queued before they exit
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        channels.forEach(channel -> channel.running = false);
+        for (Channel channel : channels) {
+            channel.thread.join(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+    
+    public void publish(OrderEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(List.of(event));
+            return;
+        }
+        transactionEvents().add(event);
+    }
+    
+    // One deadline for everything a commit published, so a full queue holds the committing thread for
+    // publish-timeout in total however many events the transaction produced
+    private void dispatch(List<OrderEvent> events) {
+        long deadline = System.nanoTime() + publishTimeout.toNanos();
+        for (Channel channel : channels) {
+            int dropped = 0;
+            for (OrderEvent event : events) {
+                if (channel.subscriber.accepts(event) && !channel.offer(event, deadline)) {
+                    dropped++;
+                }
+            }
+            if (dropped > 0) {
+                channel.dropped(dropped, events.size());
+            }
+        }
+    }
+    
+    // One list per transaction, dispatched on commit and dropped on rollback
+    @SuppressWarnings("unchecked")
+    private List<OrderEvent> transactionEvents() {
+        List<OrderEvent> events = (List<OrderEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events == null) {
+            List<OrderEvent> transactionEvents = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionEvents);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderEventBus.this);
+                    if (status == STATUS_COMMITTED) {
+                        dispatch(transactionEvents);
+                    }
+                }
+            });
+            events = transactionEvents;
+        }
+        return events;
+    }
+    
+    private final class Channel implements Runnable {
+        
+        private final OrderEventSubscriber subscriber;
+        private final BlockingQueue<OrderEvent> queue;
+        private final int batchSize;
+        private final long maxWaitNanos;
+        private final Thread thread;
+        private final Timer batchTimer;
+        private volatile boolean running = true;
+        
+        private Channel(OrderEventSubscriber subscriber, OrderEventProperties.Subscriber settings) {
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(settings.getCapacity());
+            this.batchSize = settings.getBatchSize();
+            this.maxWaitNanos = settings.getMaxWait().toNanos();
+            this.thread = new Thread(this, "order-events-" + subscriber.name());
+            this.thread.setDaemon(true);
+            this.batchTimer = Timer.builder("orderservice.events.batch")
+                    .tag("subscriber", subscriber.name())
+                    .register(meterRegistry);
+            Gauge.builder("orderservice.events.queue.depth", queue, BlockingQueue::size)
+                    .tag("subscriber", subscriber.name())
+                    .register(meterRegistry);
+        }
+        
+        private void start() {
+            thread.start();
+        }
+        
+        // Past the deadline this still takes the event if there is room, it just no longer waits for it
+        private boolean offer(OrderEvent event, long deadline) {
+            try {
+                return queue.offer(event, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        
+        private void dropped(int dropped, int published) {
+            meterRegistry.counter("orderservice.events.dropped", "subscriber", subscriber.name()).increment(dropped);
+            log.warn("Dropped {} of {} events published by a commit: the {} subscriber is {} events behind",
+                    dropped, published, subscriber.name(), queue.size());
+        }
+        
+        @Override
+        public void run() {
+            List<OrderEvent> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    fill(batch);
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                    batch.clear();
+                }
+            }
+        }
+        
+        // Blocks for the first event, then lingers up to max-wait for the batch to fill
+        private void fill(List<OrderEvent> batch) throws InterruptedException {
+            OrderEvent first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + maxWaitNanos;
+            while (batch.size() < batchSize) {
+                queue.drainTo(batch, batchSize - batch.size());
+                long remaining = deadline - System.nanoTime();
+                if (batch.size() >= batchSize || remaining <= 0) {
+                    return;
+                }
+                OrderEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+        
+        private void deliver(List<OrderEvent> batch) {
+            long start = System.nanoTime();
+            try {
+                subscriber.onEvents(List.copyOf(batch));
+            } catch (RuntimeException e) {
+                meterRegistry.counter("orderservice.events.failed", "subscriber", subscriber.name()).increment(batch.size());
+                log.error("The {} subscriber failed on a batch of {} events", subscriber.name(), batch.size(), e);
+            } finally {
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.orderservice.event;
+
+import java.util.List;
+
+/**
+ * Consumes order events in micro-batches on its own thread. Each subscriber has its own queue, sized and
+ * batched under order.events.subscribers.&lt;name&gt;, so a slow one never holds up the others.
+ */
+public interface OrderEventSubscriber {
+    
+    String name();
+    
+    // Only accepted events are queued for this subscriber
+    boolean accepts(OrderEvent event);
+    
+    // Events arrive in publication order; a batch that throws is logged and not redelivered
+    void onEvents(List<OrderEvent> events);
+}
@@ -0,0 +1,7 @@
+package com.project.orderservice.event;
+
+import com.project.orderservice.model.OrderStatus;
+
+public record OrderStatusChanged(Long orderId, Long customerId, OrderStatus previousStatus, OrderStatus status)
+        implements OrderEvent {
+}
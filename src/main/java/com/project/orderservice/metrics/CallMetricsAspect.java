@@ -0,0 +1,138 @@
+package com.project.orderservice.metrics;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every downstream Feign call, service method and repository call, tagged by outcome.
+ * Service methods returning Mono or Flux are timed when the returned publisher completes, not when it is built.
+ * All timers publish percentile histograms so latency can be compared hop by hop.
+ */
+@Aspect
+@Component
+public class CallMetricsAspect {
+    
+    static final String CLIENT_CALLS = "orderservice.client.calls";
+    static final String SERVICE_CALLS = "orderservice.service.calls";
+    static final String REPOSITORY_CALLS = "orderservice.repository.calls";
+    
+    private static final String SERVICE_PACKAGE = "com.project.orderservice.service";
+    private static final String REPOSITORY_PACKAGE = "com.project.orderservice.repository";
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> componentNames = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public CallMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    // Only the Feign proxies themselves; decorators in the client package implement the same interfaces
+    @Around("execution(* com.project.orderservice.client.*Client.*(..)) && !within(com.project.orderservice..*)")
+    public Object timeClientCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> clientType = joinPoint.getSignature().getDeclaringType();
+        FeignClient feignClient = clientType.getAnnotation(FeignClient.class);
+        String client = feignClient != null ? feignClient.name() : clientType.getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(timer(CLIENT_CALLS, Tags.of("client", client, "method", method, "outcome", "SUCCESS", "status", "2xx")));
+            return result;
+        } catch (FeignException e) {
+            sample.stop(timer(CLIENT_CALLS, Tags.of("client", client, "method", method,
+                    "outcome", outcome(e.status()), "status", String.valueOf(e.status()))));
+            throw e;
+        } catch (Throwable e) {
+            sample.stop(timer(CLIENT_CALLS, Tags.of("client", client, "method", method,
+                    "outcome", e.getClass().getSimpleName(), "status", "none")));
+            throw e;
+        }
+    }
+    
+    @Around("execution(public * com.project.orderservice.service.*Service.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, SERVICE_CALLS, "service",
+                componentName(joinPoint.getSignature().getDeclaringType(), SERVICE_PACKAGE));
+    }
+    
+    @Around("bean(*Repository)")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, REPOSITORY_CALLS, "repository",
+                componentName(joinPoint.getThis().getClass(), REPOSITORY_PACKAGE));
+    }
+    
+    private Object time(ProceedingJoinPoint joinPoint, String name, String componentTag, String component) throws Throwable {
+        Tags tags = Tags.of(componentTag, component, "method", joinPoint.getSignature().getName());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            sample.stop(timer(name, tags.and("outcome", e.getClass().getSimpleName())));
+            throw e;
+        }
+        // Reactive methods return once the pipeline is assembled; the work is timed from subscription to its end
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample subscribed = Timer.start(meterRegistry);
+                return mono.doOnSuccess(value -> subscribed.stop(timer(name, tags.and("outcome", "SUCCESS"))))
+                        .doOnError(e -> subscribed.stop(timer(name, tags.and("outcome", e.getClass().getSimpleName()))))
+                        .doOnCancel(() -> subscribed.stop(timer(name, tags.and("outcome", "CANCELLED"))));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample subscribed = Timer.start(meterRegistry);
+                return flux.doOnComplete(() -> subscribed.stop(timer(name, tags.and("outcome", "SUCCESS"))))
+                        .doOnError(e -> subscribed.stop(timer(name, tags.and("outcome", e.getClass().getSimpleName()))))
+                        .doOnCancel(() -> subscribed.stop(timer(name, tags.and("outcome", "CANCELLED"))));
+            });
+        }
+        sample.stop(timer(name, tags.and("outcome", "SUCCESS")));
+        return result;
+    }
+    
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    // Tags use the interface name: service implementations and Spring Data proxies implement ours next to others
+    private String componentName(Class<?> implementation, String interfacePackage) {
+        return componentNames.computeIfAbsent(implementation, type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getPackageName().equals(interfacePackage)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+    
+    private static String outcome(int status) {
+        if (status >= 400 && status < 500) {
+            return "CLIENT_ERROR";
+        }
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        return "IO_ERROR";
+    }
+}
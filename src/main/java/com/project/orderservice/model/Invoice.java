@@ -6,17 +6,19 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = @Index(name = "idx_invoices_issue_date", columnList = "issue_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Invoice {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoices_seq")
+    @SequenceGenerator(name = "invoices_seq", sequenceName = "invoices_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true)
@@ -37,4 +39,9 @@ public class Invoice {
     private Double taxAmount;
     
     private String paymentStatus;
+    
+    // Bumped on every change; drives the ETag of GET /api/invoices/{id}
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
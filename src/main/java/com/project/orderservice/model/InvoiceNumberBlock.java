@@ -0,0 +1,23 @@
+package com.project.orderservice.model;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Per-day invoice sequence: the next value not yet handed out to any node
+@Entity
+@Table(name = "invoice_number_blocks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceNumberBlock {
+    @Id
+    private LocalDate issueDay;
+    
+    @Column(nullable = false)
+    private Long nextValue;
+}
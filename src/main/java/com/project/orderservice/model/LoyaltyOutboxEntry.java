@@ -0,0 +1,61 @@
+package com.project.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.project.orderservice.dto.LoyaltyActivityType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Loyalty activity waiting to be delivered to customer-service. Written in the same transaction as
+ * the order change that earned it, delivered afterwards by {@code LoyaltyOutboxDispatcher}.
+ */
+@Entity
+@Table(name = "loyalty_outbox", indexes = {
+        @Index(name = "idx_loyalty_outbox_due", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoyaltyOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loyalty_outbox_seq")
+    @SequenceGenerator(name = "loyalty_outbox_seq", sequenceName = "loyalty_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    // Idempotency key sent to customer-service; one entry per awarded activity
+    @Column(nullable = false, unique = true)
+    private String referenceId;
+    
+    @Column(nullable = false)
+    private Long customerId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LoyaltyActivityType type;
+    
+    private Integer points;
+    private Double amount;
+    private String description;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LoyaltyOutboxStatus status;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(length = 500)
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,8 @@
+package com.project.orderservice.model;
+
+public enum LoyaltyOutboxStatus {
+    PENDING,
+    SENT,
+    // Rejected by customer-service in a way retrying cannot fix; kept for manual follow-up
+    FAILED
+}
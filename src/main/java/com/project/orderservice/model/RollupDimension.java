@@ -0,0 +1,10 @@
+package com.project.orderservice.model;
+
+public enum RollupDimension {
+    // Keyed by product id; revenue is the sum of item subtotals
+    PRODUCT,
+    // Keyed by customer id; revenue is the discounted order total
+    CUSTOMER,
+    // Keyed by the order's current status; the only dimension that includes cancelled orders
+    STATUS
+}
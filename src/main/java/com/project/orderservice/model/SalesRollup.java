@@ -0,0 +1,25 @@
+package com.project.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-aggregated sales for one time bucket of one dimension value, e.g. product 12 on 2024-03-01.
+ * Rows are only ever incremented (see {@code SalesRollupRecorder}) or rebuilt from the orders table.
+ */
+@Entity
+@Table(name = "sales_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+    @EmbeddedId
+    private SalesRollupKey key;
+    
+    private long orderCount;
+    private long units;
+    private double revenue;
+    private double discount;
+}
@@ -0,0 +1,10 @@
+package com.project.orderservice.model;
+
+// Amount to add to one rollup row; negative for removed or re-bucketed orders
+public record SalesRollupDelta(long orderCount, long units, double revenue, double discount) {
+    
+    public SalesRollupDelta plus(SalesRollupDelta other) {
+        return new SalesRollupDelta(orderCount + other.orderCount, units + other.units,
+                revenue + other.revenue, discount + other.discount);
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.orderservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupKey implements Serializable {
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RollupGranularity granularity;
+    
+    private LocalDateTime bucketStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RollupDimension dimension;
+    
+    @Column(length = 64)
+    private String dimensionKey;
+}
@@ -0,0 +1,46 @@
+package com.project.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to the units a node holds in its stock leases. The sum of a node's entries per product is
+ * what that node holds, so the leases survive a restart; see {@code StockLeaseJournal}.
+ */
+@Entity
+@Table(name = "stock_lease_journal", indexes = {
+        @Index(name = "idx_stock_lease_journal_node", columnList = "node_id, product_id")
+}, uniqueConstraints = {
+        // A restore credits each product of its referenceId at most once
+        @UniqueConstraint(name = "uk_stock_lease_journal_reference", columnNames = {"reference_id", "product_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLeaseJournalEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_lease_journal_seq")
+    @SequenceGenerator(name = "stock_lease_journal_seq", sequenceName = "stock_lease_journal_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    // Positive when the lease gained units, negative when orders or a return took them
+    @Column(nullable = false)
+    private int units;
+    
+    // Set on restores only
+    @Column(name = "reference_id")
+    private String referenceId;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,58 @@
+package com.project.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stock of a deleted order waiting to be given back. Written in the same transaction as the delete,
+ * restored afterwards by {@code StockRestoreDispatcher} and removed once product-service has it back.
+ */
+@Entity
+@Table(name = "stock_restore_outbox", indexes = {
+        @Index(name = "idx_stock_restore_outbox_due", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRestoreEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_restore_outbox_seq")
+    @SequenceGenerator(name = "stock_restore_outbox_seq", sequenceName = "stock_restore_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    // Reservation referenceId sent to product-service; one entry per deleted order
+    @Column(nullable = false, unique = true)
+    private String referenceId;
+    
+    @Column(nullable = false)
+    private Long orderId;
+    
+    // Product id to the quantity given back
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "stock_restore_outbox_items", joinColumns = @JoinColumn(name = "entry_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity", nullable = false)
+    private Map<Long, Integer> quantities = new LinkedHashMap<>();
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockRestoreStatus status;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(length = 500)
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,7 @@
+package com.project.orderservice.model;
+
+public enum StockRestoreStatus {
+    PENDING,
+    // Rejected by product-service in a way retrying cannot fix; kept for manual follow-up
+    FAILED
+}
@@ -0,0 +1,39 @@
+package com.project.orderservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.project.orderservice.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // A plain insert, so a concurrent claim fails on the primary key; save() would merge into it instead
+    @Modifying
+    @Query(value = "insert into idempotency_keys (idempotency_key, request_hash, completed, created_at, expires_at) "
+            + "values (:key, :requestHash, false, :createdAt, :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    // Guarded by the hash so a claim is only ever completed by the request that made it
+    @Modifying
+    @Query("update IdempotencyRecord r set r.completed = true, r.response = :response, r.expiresAt = :expiresAt "
+            + "where r.key = :key and r.requestHash = :requestHash and r.completed = false")
+    int complete(@Param("key") String key, @Param("requestHash") String requestHash,
+                 @Param("response") String response, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.completed = false")
+    int releaseClaim(@Param("key") String key);
+    
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,20 @@
+package com.project.orderservice.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.project.orderservice.model.InvoiceNumberBlock;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface InvoiceNumberBlockRepository extends JpaRepository<InvoiceNumberBlock, LocalDate> {
+    
+    // Serializes block reservations for the same day across nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from InvoiceNumberBlock b where b.issueDay = :day")
+    Optional<InvoiceNumberBlock> findForUpdate(@Param("day") LocalDate day);
+}
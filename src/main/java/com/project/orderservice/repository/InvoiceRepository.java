@@ -1,18 +1,54 @@
 package com.project.orderservice.repository;
 
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.project.orderservice.dto.InvoiceDto;
 import com.project.orderservice.model.Invoice;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+    // Projects straight into the DTO; i.order.id reads the foreign key without joining orders
+    String SELECT_INVOICE_DTO = "select new com.project.orderservice.dto.InvoiceDto("
+            + "i.id, i.invoiceNumber, i.order.id, i.issueDate, i.dueDate, i.totalAmount, i.taxAmount, i.paymentStatus) "
+            + "from Invoice i ";
+    
     Optional<Invoice> findByOrderId(Long orderId);
     
+    @Query("select i.version from Invoice i where i.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    // Versioned so bulk changes invalidate ETags like entity updates do
+    @Modifying
+    @Query("update versioned Invoice i set i.paymentStatus = :paymentStatus where i.order.id in :orderIds")
+    int updatePaymentStatusByOrderIdIn(@Param("orderIds") Collection<Long> orderIds, @Param("paymentStatus") String paymentStatus);
+    
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
     
-    List<Invoice> findByIssueDateBetween(LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+    // The unpaged listings are limited, in the same order as the keyset pages
+    @Query(SELECT_INVOICE_DTO + "order by i.issueDate, i.id")
+    List<InvoiceDto> findAllDtos(Pageable limit);
+    
+    @Query(SELECT_INVOICE_DTO + "where i.issueDate between :startDate and :endDate order by i.issueDate, i.id")
+    List<InvoiceDto> findDtosByIssueDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                                Pageable limit);
+    
+    @Query(SELECT_INVOICE_DTO
+            + "where i.issueDate > :afterDate or (i.issueDate = :afterDate and i.id > :afterId) "
+            + "order by i.issueDate, i.id")
+    List<InvoiceDto> findPage(@Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Pageable limit);
+    
+    @Query(SELECT_INVOICE_DTO + "where i.issueDate <= :endDate "
+            + "and (i.issueDate > :afterDate or (i.issueDate = :afterDate and i.id > :afterId)) "
+            + "order by i.issueDate, i.id")
+    List<InvoiceDto> findPageByIssueDateBefore(@Param("endDate") LocalDateTime endDate,
+            @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Pageable limit);
+}
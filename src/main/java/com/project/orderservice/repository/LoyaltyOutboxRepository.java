@@ -0,0 +1,39 @@
+package com.project.orderservice.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.project.orderservice.model.LoyaltyOutboxEntry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+public interface LoyaltyOutboxRepository extends JpaRepository<LoyaltyOutboxEntry, Long> {
+    
+    // Rows locked by another instance's claim are skipped rather than waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select e from LoyaltyOutboxEntry e where e.status = com.project.orderservice.model.LoyaltyOutboxStatus.PENDING "
+            + "and e.nextAttemptAt <= :now order by e.nextAttemptAt, e.id")
+    List<LoyaltyOutboxEntry> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("update LoyaltyOutboxEntry e set e.status = com.project.orderservice.model.LoyaltyOutboxStatus.SENT, "
+            + "e.sentAt = :sentAt, e.lastError = null where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+    
+    @Modifying
+    @Query("delete from LoyaltyOutboxEntry e where e.status = com.project.orderservice.model.LoyaltyOutboxStatus.SENT "
+            + "and e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,13 +3,22 @@ package com.project.orderservice.repository;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.project.orderservice.model.OrderItem;
+import com.project.orderservice.repository.projection.OrderItemRow;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderId(Long orderId);
     
     List<OrderItem> findByProductId(Long productId);
+    
+    @Query("select new com.project.orderservice.repository.projection.OrderItemRow("
+            + "i.order.id, i.id, i.productId, i.productName, i.quantity, i.price, i.subtotal) "
+            + "from OrderItem i where i.order.id in :orderIds order by i.id")
+    List<OrderItemRow> findRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
\ No newline at end of file
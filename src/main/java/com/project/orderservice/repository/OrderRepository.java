@@ -1,18 +1,122 @@
 package com.project.orderservice.repository;
 
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.project.orderservice.model.Order;
 import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.repository.projection.OrderRow;
+import com.project.orderservice.repository.projection.OrderStatusRow;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByCustomerId(Long customerId);
+    String SELECT_ORDER_ROW = "select new com.project.orderservice.repository.projection.OrderRow("
+            + "o.id, o.customerId, o.orderDate, o.status, o.totalAmount) from Order o ";
+    
+    // Single-order read that needs no open session afterwards (open-in-view is off)
+    @EntityGraph(attributePaths = {"items", "invoice"})
+    Optional<Order> findWithItemsById(Long id);
+    
+    @Query("select o from Order o where o.id in :ids and not exists (select i.id from Invoice i where i.order = o)")
+    List<Order> findWithoutInvoiceByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Bounded by date so the invoice sweep reads idx_orders_date rather than the whole history
+    @Query("select o.id from Order o where o.orderDate >= :startDate and o.orderDate < :endDate "
+            + "and not exists (select i.id from Invoice i where i.order = o) order by o.orderDate, o.id")
+    List<Long> findIdsWithoutInvoice(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                     Pageable limit);
+    
+    // Conditional GETs compare this against If-None-Match before loading anything else
+    @Query("select o.version from Order o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    // Projections for read-only listings: no managed entities, no dirty-checking snapshots.
+    // The unpaged listings are limited, in the same order as the keyset pages
+    @Query(SELECT_ORDER_ROW + "order by o.orderDate, o.id")
+    List<OrderRow> findAllRows(Pageable limit);
+    
+    @Query(SELECT_ORDER_ROW + "where o.customerId = :customerId order by o.orderDate, o.id")
+    List<OrderRow> findRowsByCustomerId(@Param("customerId") Long customerId, Pageable limit);
+    
+    @Query(SELECT_ORDER_ROW + "where o.status = :status order by o.orderDate, o.id")
+    List<OrderRow> findRowsByStatus(@Param("status") OrderStatus status, Pageable limit);
+    
+    @Query(SELECT_ORDER_ROW + "where o.orderDate between :startDate and :endDate order by o.orderDate, o.id")
+    List<OrderRow> findRowsByOrderDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                              Pageable limit);
+    
+    @Query(SELECT_ORDER_ROW + "where o.id in :ids")
+    List<OrderRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset pages select ids only (fetch joins cannot be limited in SQL); rows are then loaded with findRowsByIdIn
+    @Query("select o.id from Order o "
+            + "where o.orderDate > :afterDate or (o.orderDate = :afterDate and o.id > :afterId) "
+            + "order by o.orderDate, o.id")
+    List<Long> findPageIds(@Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Pageable limit);
+    
+    @Query("select o.id from Order o where o.customerId = :customerId "
+            + "and (o.orderDate > :afterDate or (o.orderDate = :afterDate and o.id > :afterId)) "
+            + "order by o.orderDate, o.id")
+    List<Long> findPageIdsByCustomerId(@Param("customerId") Long customerId,
+            @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Pageable limit);
+    
+    @Query("select o.id from Order o where o.status = :status "
+            + "and (o.orderDate > :afterDate or (o.orderDate = :afterDate and o.id > :afterId)) "
+            + "order by o.orderDate, o.id")
+    List<Long> findPageIdsByStatus(@Param("status") OrderStatus status,
+            @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Pageable limit);
+    
+    @Query("select o.id from Order o where o.customerId = :customerId and o.status = :status "
+            + "and o.orderDate <= :endDate "
+            + "and (o.orderDate > :afterDate or (o.orderDate = :afterDate and o.id > :afterId)) "
+            + "order by o.orderDate, o.id")
+    List<Long> findPageIdsByCustomerIdAndStatus(@Param("customerId") Long customerId, @Param("status") OrderStatus status,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Pageable limit);
+    
+    @Query("select o.id from Order o where o.orderDate <= :endDate "
+            + "and (o.orderDate > :afterDate or (o.orderDate = :afterDate and o.id > :afterId)) "
+            + "order by o.orderDate, o.id")
+    List<Long> findPageIdsByOrderDateBefore(@Param("endDate") LocalDateTime endDate,
+            @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Pageable limit);
+    
+    // Rows of one order are adjacent thanks to the ordering, so Hibernate can emit each order as soon as it is complete
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select o from Order o left join fetch o.items left join fetch o.invoice order by o.orderDate, o.id")
+    Stream<Order> streamAll();
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select o from Order o left join fetch o.items "
+            + "where o.orderDate >= :startDate and o.orderDate < :endDate order by o.orderDate, o.id")
+    Stream<Order> streamByOrderDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    List<Order> findByStatus(OrderStatus status);
+    // Bulk transitions lock their targets, in id order so overlapping requests cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.project.orderservice.repository.projection.OrderStatusRow("
+            + "o.id, o.customerId, o.status, o.totalAmount, o.orderDate, o.discountAmount) "
+            + "from Order o where o.id in :ids order by o.id")
+    List<OrderStatusRow> findStatusRowsForUpdate(@Param("ids") Collection<Long> ids);
     
-    List<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+    // Versioned so bulk changes invalidate ETags like entity updates do
+    @Modifying
+    @Query("update versioned Order o set o.status = :newStatus where o.id in :ids and o.status = :currentStatus")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("currentStatus") OrderStatus currentStatus,
+                     @Param("newStatus") OrderStatus newStatus);
+}
@@ -0,0 +1,50 @@
+package com.project.orderservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.project.orderservice.dto.SalesRollupDto;
+import com.project.orderservice.dto.SalesTotalDto;
+import com.project.orderservice.model.RollupDimension;
+import com.project.orderservice.model.RollupGranularity;
+import com.project.orderservice.model.SalesRollup;
+import com.project.orderservice.model.SalesRollupKey;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupKey>, SalesRollupRepositoryCustom {
+    String SELECT_ROLLUP_DTO = "select new com.project.orderservice.dto.SalesRollupDto("
+            + "r.key.bucketStart, r.key.dimensionKey, r.orderCount, r.units, r.revenue, r.discount) "
+            + "from SalesRollup r where r.key.granularity = :granularity and r.key.dimension = :dimension "
+            + "and r.key.bucketStart >= :startDate and r.key.bucketStart < :endDate ";
+    
+    @Query(SELECT_ROLLUP_DTO + "order by r.key.bucketStart, r.key.dimensionKey")
+    List<SalesRollupDto> findBuckets(@Param("granularity") RollupGranularity granularity,
+                                     @Param("dimension") RollupDimension dimension,
+                                     @Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate);
+    
+    @Query(SELECT_ROLLUP_DTO + "and r.key.dimensionKey = :key order by r.key.bucketStart")
+    List<SalesRollupDto> findBucketsByKey(@Param("granularity") RollupGranularity granularity,
+                                          @Param("dimension") RollupDimension dimension,
+                                          @Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate,
+                                          @Param("key") String key);
+    
+    @Query("select new com.project.orderservice.dto.SalesTotalDto("
+            + "r.key.dimensionKey, sum(r.orderCount), sum(r.units), sum(r.revenue), sum(r.discount)) "
+            + "from SalesRollup r where r.key.granularity = :granularity and r.key.dimension = :dimension "
+            + "and r.key.bucketStart >= :startDate and r.key.bucketStart < :endDate "
+            + "group by r.key.dimensionKey order by sum(r.revenue) desc")
+    List<SalesTotalDto> findTotals(@Param("granularity") RollupGranularity granularity,
+                                   @Param("dimension") RollupDimension dimension,
+                                   @Param("startDate") LocalDateTime startDate,
+                                   @Param("endDate") LocalDateTime endDate);
+    
+    @Modifying
+    @Query("delete from SalesRollup r where r.key.bucketStart >= :startDate and r.key.bucketStart < :endDate")
+    int deleteBuckets(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+}
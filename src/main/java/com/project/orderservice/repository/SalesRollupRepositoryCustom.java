@@ -0,0 +1,12 @@
+package com.project.orderservice.repository;
+
+import com.project.orderservice.model.SalesRollupDelta;
+import com.project.orderservice.model.SalesRollupKey;
+
+import java.util.Map;
+
+public interface SalesRollupRepositoryCustom {
+    
+    // Adds each delta to its row, creating rows that do not exist yet, in a single JDBC batch
+    void increment(Map<SalesRollupKey, SalesRollupDelta> deltas);
+}
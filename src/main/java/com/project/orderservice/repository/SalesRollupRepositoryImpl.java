@@ -0,0 +1,46 @@
+package com.project.orderservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.project.orderservice.model.SalesRollupDelta;
+import com.project.orderservice.model.SalesRollupKey;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SalesRollupRepositoryImpl implements SalesRollupRepositoryCustom {
+    
+    // Upsert keeps concurrent increments of the same bucket race-free without a read first
+    private static final String INCREMENT = "insert into sales_rollups "
+            + "(granularity, bucket_start, dimension, dimension_key, order_count, units, revenue, discount) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?) on duplicate key update "
+            + "order_count = order_count + values(order_count), units = units + values(units), "
+            + "revenue = revenue + values(revenue), discount = discount + values(discount)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public SalesRollupRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    @Override
+    public void increment(Map<SalesRollupKey, SalesRollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[]{
+                key.getGranularity().name(),
+                Timestamp.valueOf(key.getBucketStart()),
+                key.getDimension().name(),
+                key.getDimensionKey(),
+                delta.orderCount(),
+                delta.units(),
+                delta.revenue(),
+                delta.discount()}));
+        jdbcTemplate.batchUpdate(INCREMENT, rows);
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.orderservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.project.orderservice.model.StockLeaseJournalEntry;
+import com.project.orderservice.repository.projection.LeaseBalance;
+
+import java.util.List;
+
+public interface StockLeaseJournalRepository extends JpaRepository<StockLeaseJournalEntry, Long> {
+    
+    @Query("select new com.project.orderservice.repository.projection.LeaseBalance(e.productId, sum(e.units)) "
+            + "from StockLeaseJournalEntry e where e.nodeId = :nodeId group by e.productId")
+    List<LeaseBalance> findBalances(@Param("nodeId") String nodeId);
+    
+    boolean existsByReferenceId(String referenceId);
+    
+    // Restore entries are kept with their units zeroed, so they still mark the restore as applied
+    @Query("select e from StockLeaseJournalEntry e where e.nodeId = :nodeId and (e.referenceId is null or e.units <> 0)")
+    List<StockLeaseJournalEntry> findCompactable(@Param("nodeId") String nodeId);
+}
@@ -0,0 +1,27 @@
+package com.project.orderservice.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.project.orderservice.model.StockRestoreEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+public interface StockRestoreRepository extends JpaRepository<StockRestoreEntry, Long> {
+    
+    // Rows locked by another instance's claim are skipped rather than waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select e from StockRestoreEntry e where e.status = com.project.orderservice.model.StockRestoreStatus.PENDING "
+            + "and e.nextAttemptAt <= :now order by e.nextAttemptAt, e.id")
+    List<StockRestoreEntry> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+}
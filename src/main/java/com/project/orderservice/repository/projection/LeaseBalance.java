@@ -0,0 +1,5 @@
+package com.project.orderservice.repository.projection;
+
+// Units a node holds in its lease of one product
+public record LeaseBalance(Long productId, Long units) {
+}
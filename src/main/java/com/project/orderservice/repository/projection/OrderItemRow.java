@@ -0,0 +1,12 @@
+package com.project.orderservice.repository.projection;
+
+// Read-only view of an order item, tagged with its order id so rows can be grouped without loading orders
+public record OrderItemRow(
+        Long orderId,
+        Long id,
+        Long productId,
+        String productName,
+        Integer quantity,
+        Double price,
+        Double subtotal) {
+}
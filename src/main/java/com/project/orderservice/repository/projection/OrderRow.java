@@ -0,0 +1,14 @@
+package com.project.orderservice.repository.projection;
+
+import com.project.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Read-only view of the order columns returned by list endpoints
+public record OrderRow(
+        Long id,
+        Long customerId,
+        LocalDateTime orderDate,
+        OrderStatus status,
+        Double totalAmount) {
+}
@@ -0,0 +1,15 @@
+package com.project.orderservice.repository.projection;
+
+import com.project.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// The columns a status transition and its side effects need
+public record OrderStatusRow(
+        Long id,
+        Long customerId,
+        OrderStatus status,
+        Double totalAmount,
+        LocalDateTime orderDate,
+        Double discountAmount) {
+}
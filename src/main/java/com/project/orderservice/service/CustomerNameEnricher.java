@@ -0,0 +1,47 @@
+package com.project.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.project.orderservice.client.CustomerBatchLoader;
+import com.project.orderservice.dto.CursorPageDto;
+import com.project.orderservice.dto.CustomerDto;
+import com.project.orderservice.dto.OrderDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills in {@code customerName} on a page of orders with one customer lookup for all the distinct
+ * customers in it, instead of one call per order. Only pages are enriched, so the lookup is bounded by
+ * the page size. Runs on the request thread after the service has returned, so no database connection
+ * is held while customer-service is being called.
+ */
+@Component
+public class CustomerNameEnricher {
+    
+    private static final String UNKNOWN_CUSTOMER = "Unknown Customer";
+    
+    private final CustomerBatchLoader customerBatchLoader;
+    
+    @Autowired
+    public CustomerNameEnricher(CustomerBatchLoader customerBatchLoader) {
+        this.customerBatchLoader = customerBatchLoader;
+    }
+    
+    public CursorPageDto<OrderDto> enrich(CursorPageDto<OrderDto> page) {
+        List<OrderDto> orders = page.getItems();
+        if (orders.isEmpty()) {
+            return page;
+        }
+        Map<Long, CustomerDto> customers = customerBatchLoader.getCustomersByIds(
+                orders.stream().map(OrderDto::getCustomerId).toList());
+        for (OrderDto order : orders) {
+            CustomerDto customer = customers.get(order.getCustomerId());
+            order.setCustomerName(customer != null
+                    ? customer.getFirstName() + " " + customer.getLastName()
+                    : UNKNOWN_CUSTOMER);
+        }
+        return page;
+    }
+}
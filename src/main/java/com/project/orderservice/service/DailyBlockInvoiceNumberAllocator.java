@@ -0,0 +1,128 @@
+package com.project.orderservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.model.InvoiceNumberBlock;
+import com.project.orderservice.model.Order;
+import com.project.orderservice.repository.InvoiceNumberBlockRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numbers invoices per issue day as INV-yyyyMMdd-nnnnnnn. Each node reserves a block of values for
+ * the day from invoice_number_blocks in its own short transaction, then hands them out from memory;
+ * the hot path is one atomic increment plus building the string. Values left in a block when a
+ * node stops are never used, so numbers have gaps and are only roughly ordered across nodes.
+ * The sequence is zero-padded, which keeps it apart from order-id numbers of the same day.
+ */
+@Component
+@ConditionalOnProperty(name = "order.invoice-number.allocator", havingValue = "daily-block", matchIfMissing = true)
+public class DailyBlockInvoiceNumberAllocator implements InvoiceNumberAllocator {
+    
+    private static final Logger log = LoggerFactory.getLogger(DailyBlockInvoiceNumberAllocator.class);
+    
+    private static final int SEQUENCE_DIGITS = 7;
+    // Concurrent first reservations of a day race to insert its row; the loser retries against the winner's row
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+    
+    private final InvoiceNumberBlockRepository blockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    
+    private volatile Block current;
+    
+    @Autowired
+    public DailyBlockInvoiceNumberAllocator(
+            InvoiceNumberBlockRepository blockRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.invoice-number.block-size:100}") int blockSize) {
+        this.blockRepository = blockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The reservation commits on its own, independent of the order transaction asking for a number
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+    
+    @Override
+    public String nextInvoiceNumber(Order order, LocalDateTime issueDate) {
+        LocalDate day = issueDate.toLocalDate();
+        Block block = current;
+        if (block != null && block.day.equals(day)) {
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return block.format(value);
+            }
+        }
+        return nextFromNewBlock(day);
+    }
+    
+    private synchronized String nextFromNewBlock(LocalDate day) {
+        while (true) {
+            // Another thread may have refilled while this one waited
+            Block block = current;
+            if (block != null && block.day.equals(day)) {
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    return block.format(value);
+                }
+            }
+            long start = reserve(day);
+            current = new Block(day, start, start + blockSize);
+        }
+    }
+    
+    private long reserve(LocalDate day) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    InvoiceNumberBlock row = blockRepository.findForUpdate(day)
+                            .orElseGet(() -> new InvoiceNumberBlock(day, 1L));
+                    long start = row.getNextValue();
+                    row.setNextValue(start + blockSize);
+                    blockRepository.saveAndFlush(row);
+                    return start;
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Invoice number block for {} was created concurrently, retrying", day);
+            }
+        }
+    }
+    
+    private static final class Block {
+        private final LocalDate day;
+        private final String prefix;
+        private final AtomicLong next;
+        private final long end;
+        
+        private Block(LocalDate day, long start, long end) {
+            this.day = day;
+            this.prefix = String.format("INV-%04d%02d%02d-", day.getYear(), day.getMonthValue(), day.getDayOfMonth());
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+        
+        private String format(long value) {
+            String digits = Long.toString(value);
+            StringBuilder number = new StringBuilder(prefix.length() + Math.max(SEQUENCE_DIGITS, digits.length()));
+            number.append(prefix);
+            for (int i = digits.length(); i < SEQUENCE_DIGITS; i++) {
+                number.append('0');
+            }
+            return number.append(digits).toString();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.project.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.exception.IdempotencyKeyConflictException;
+import com.project.orderservice.model.IdempotencyRecord;
+import com.project.orderservice.repository.IdempotencyRecordRepository;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action at most once per Idempotency-Key and replays its response to retries.
+ * <ul>
+ *   <li>Completed keys are answered from a local cache, then from idempotency_keys, which all nodes share.</li>
+ *   <li>Duplicates arriving while the first request runs on this node wait for its result; on another
+ *   node they poll the shared row until it completes, and get a 409 if it does not within the wait timeout.</li>
+ *   <li>The response is recorded in the same transaction as the action, so an order is never committed
+ *   without its key. A claim left behind by a crashed node can be taken over once the claim timeout has
+ *   passed; if the original request was only slow, the completion guard lets just one of the two commit.</li>
+ *   <li>A failed action releases its claim so the client can retry with the same key.</li>
+ * </ul>
+ */
+@Component
+public class IdempotencyKeyStore {
+    
+    public static final int MAX_KEY_LENGTH = 100;
+    
+    private static final long POLL_INTERVAL_MS = 50;
+    
+    public record Result<T>(T response, boolean replayed) {
+    }
+    
+    private record Completed(String requestHash, String response) {
+    }
+    
+    private record InFlight(String requestHash, CompletableFuture<String> response) {
+    }
+    
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate claimTransactionTemplate;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Duration waitTimeout;
+    private final Cache<String, Completed> completed;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public IdempotencyKeyStore(
+            IdempotencyRecordRepository repository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.idempotency.ttl:24h}") Duration ttl,
+            @Value("${order.idempotency.claim-timeout:1m}") Duration claimTimeout,
+            @Value("${order.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            @Value("${order.idempotency.cache-size:10000}") long cacheSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate = new TransactionTemplate(transactionManager);
+        // Claims are visible to other nodes before the action starts
+        this.claimTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.waitTimeout = waitTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+    
+    public <T> Result<T> execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        
+        Completed done = completed.getIfPresent(key);
+        if (done != null) {
+            checkSameRequest(done.requestHash(), requestHash);
+            return replay(done.response(), responseType, "memory");
+        }
+        
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkSameRequest(running.requestHash(), requestHash);
+            return replay(await(running.response()), responseType, "in-flight");
+        }
+        try {
+            Result<T> result = claimAndRun(key, requestHash, responseType, action, mine.response());
+            if (result.replayed()) {
+                meterRegistry.counter("orderservice.idempotency.replays", "source", "database").increment();
+            }
+            return result;
+        } catch (RuntimeException e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteExpired(LocalDateTime.now()));
+    }
+    
+    private <T> Result<T> claimAndRun(String key, String requestHash, Class<T> responseType,
+                                      Supplier<T> action, CompletableFuture<String> response) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            IdempotencyRecord existing;
+            try {
+                existing = claimTransactionTemplate.execute(status -> claim(key, requestHash));
+            } catch (DataIntegrityViolationException e) {
+                // Only a duplicate key means another node inserted the claim first; anything else fails every retry
+                if (!isDuplicateKey(e)) {
+                    throw e;
+                }
+                pause(deadline);
+                continue;
+            }
+            if (existing == null) {
+                return run(key, requestHash, action, response);
+            }
+            checkSameRequest(existing.getRequestHash(), requestHash);
+            if (existing.isCompleted()) {
+                completed.put(key, new Completed(requestHash, existing.getResponse()));
+                response.complete(existing.getResponse());
+                return new Result<>(read(existing.getResponse(), responseType), true);
+            }
+            pause(deadline);
+        }
+    }
+    
+    private static void pause(long deadline) {
+        if (System.nanoTime() > deadline) {
+            throw new IdempotencyKeyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        sleep();
+    }
+    
+    // idempotency_keys has no unique constraint besides its primary key
+    private static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        return e instanceof DuplicateKeyException
+                || e.getCause() instanceof ConstraintViolationException violation
+                        && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+    }
+    
+    // Returns null once this caller holds the claim, otherwise the live record of someone else's
+    private IdempotencyRecord claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord existing = repository.findById(key).orElse(null);
+        if (existing != null) {
+            if (!existing.getExpiresAt().isBefore(now)) {
+                return existing;
+            }
+            repository.deleteIfExpired(key, now);
+        }
+        repository.claim(key, requestHash, now, now.plus(claimTimeout));
+        return null;
+    }
+    
+    private <T> Result<T> run(String key, String requestHash, Supplier<T> action, CompletableFuture<String> response) {
+        Object[] value = new Object[1];
+        String json;
+        try {
+            json = transactionTemplate.execute(status -> {
+                T result = action.get();
+                String serialized = write(result);
+                if (repository.complete(key, requestHash, serialized, LocalDateTime.now().plus(ttl)) != 1) {
+                    // Our claim timed out and another request completed the key; roll this execution back
+                    throw new IdempotencyKeyConflictException("A request with this Idempotency-Key was already processed");
+                }
+                value[0] = result;
+                return serialized;
+            });
+        } catch (RuntimeException e) {
+            claimTransactionTemplate.executeWithoutResult(status -> repository.releaseClaim(key));
+            throw e;
+        }
+        completed.put(key, new Completed(requestHash, json));
+        response.complete(json);
+        @SuppressWarnings("unchecked")
+        T result = (T) value[0];
+        return new Result<>(result, false);
+    }
+    
+    private <T> Result<T> replay(String response, Class<T> responseType, String source) {
+        meterRegistry.counter("orderservice.idempotency.replays", "source", source).increment();
+        return new Result<>(read(response, responseType), true);
+    }
+    
+    private String await(CompletableFuture<String> response) {
+        try {
+            return response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (ExecutionException e) {
+            // The first request failed; its duplicates fail the same way
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("Interrupted while waiting for the original request");
+        }
+    }
+    
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used with a different request body");
+        }
+    }
+    
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+    
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response", e);
+        }
+    }
+    
+    private <T> T read(String response, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not replay stored response", e);
+        }
+    }
+    
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("Interrupted while waiting for the original request");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.orderservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.event.OrderCreated;
+import com.project.orderservice.event.OrderEvent;
+import com.project.orderservice.event.OrderEventSubscriber;
+import com.project.orderservice.event.OrderStatusChanged;
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.repository.OrderRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Issues invoices for new orders and marks them PAID on delivery, one transaction per batch of events.
+ * An order whose OrderCreated event was dropped or lost with the process is picked up by the sweep once it
+ * is older than the grace period; the invoice it gets then reflects whether the order was delivered meanwhile.
+ */
+@Component
+public class InvoiceEventSubscriber implements OrderEventSubscriber {
+    
+    private static final Logger log = LoggerFactory.getLogger(InvoiceEventSubscriber.class);
+    
+    private final OrderRepository orderRepository;
+    private final InvoiceService invoiceService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration sweepGrace;
+    private final Duration sweepLookback;
+    private final int sweepBatchSize;
+    
+    @Autowired
+    public InvoiceEventSubscriber(
+            OrderRepository orderRepository,
+            InvoiceService invoiceService,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.events.invoice-sweep.grace:1m}") Duration sweepGrace,
+            @Value("${order.events.invoice-sweep.lookback:1d}") Duration sweepLookback,
+            @Value("${order.events.invoice-sweep.batch-size:500}") int sweepBatchSize) {
+        this.orderRepository = orderRepository;
+        this.invoiceService = invoiceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweepGrace = sweepGrace;
+        this.sweepLookback = sweepLookback;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+    
+    @Override
+    public String name() {
+        return "invoices";
+    }
+    
+    @Override
+    public boolean accepts(OrderEvent event) {
+        return event instanceof OrderCreated
+                || event instanceof OrderStatusChanged changed && changed.status() == OrderStatus.DELIVERED;
+    }
+    
+    @Override
+    public void onEvents(List<OrderEvent> events) {
+        List<Long> created = new ArrayList<>();
+        List<Long> delivered = new ArrayList<>();
+        for (OrderEvent event : events) {
+            if (event instanceof OrderCreated) {
+                created.add(event.orderId());
+            } else {
+                delivered.add(event.orderId());
+            }
+        }
+        // Invoices first: an order created and delivered within one batch is issued as PAID
+        if (!created.isEmpty()) {
+            issueInvoices(created);
+        }
+        if (!delivered.isEmpty()) {
+            invoiceService.updatePaymentStatusForOrders(delivered, "PAID");
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${order.events.invoice-sweep.interval:PT1M}")
+    public void sweepMissingInvoices() {
+        LocalDateTime end = LocalDateTime.now().minus(sweepGrace);
+        LocalDateTime start = end.minus(sweepLookback);
+        List<Long> orderIds;
+        do {
+            orderIds = orderRepository.findIdsWithoutInvoice(start, end, PageRequest.of(0, sweepBatchSize));
+            if (!orderIds.isEmpty()) {
+                log.warn("Issuing {} invoices missed by the event pipeline", issueInvoices(orderIds));
+            }
+        } while (orderIds.size() == sweepBatchSize);
+    }
+    
+    // Skips orders that already have one, so a sweep racing a late event cannot issue a second invoice
+    private int issueInvoices(Collection<Long> orderIds) {
+        return transactionTemplate.execute(status -> {
+            List<Order> orders = orderRepository.findWithoutInvoiceByIdIn(orderIds);
+            invoiceService.generateInvoices(orders);
+            return orders.size();
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.orderservice.service;
+
+import com.project.orderservice.model.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hands out invoice numbers. Selected with order.invoice-number.allocator: daily-block (default) or
+ * order-id. Numbers must be unique across nodes; gaps are allowed.
+ */
+public interface InvoiceNumberAllocator {
+    String nextInvoiceNumber(Order order, LocalDateTime issueDate);
+}
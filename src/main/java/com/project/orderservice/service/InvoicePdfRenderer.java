@@ -0,0 +1,148 @@
+package com.project.orderservice.service;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.springframework.stereotype.Component;
+
+import com.project.orderservice.dto.InvoiceDto;
+import com.project.orderservice.repository.projection.OrderItemRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders an invoice straight into the given stream: iText writes each page out as it is completed,
+ * so only the cross-reference table is kept until the document closes.
+ * Fonts and the static parts of the layout are built once; every document works on copies of the
+ * prototype tables, which are never added to a document themselves and so never change.
+ */
+@Component
+public class InvoicePdfRenderer {
+    
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final float[] ITEM_COLUMN_WIDTHS = {4f, 1.2f, 1.6f, 1.8f};
+    
+    private final Font titleFont;
+    private final Font labelFont;
+    private final Font bodyFont;
+    private final PdfPTable letterheadPrototype;
+    private final PdfPTable itemTablePrototype;
+    
+    public InvoicePdfRenderer() throws IOException, DocumentException {
+        // Standard Type 1 fonts: metrics are parsed once here and nothing needs embedding
+        BaseFont regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        BaseFont bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        this.titleFont = new Font(bold, 18);
+        this.labelFont = new Font(bold, 10);
+        this.bodyFont = new Font(regular, 10);
+        this.letterheadPrototype = buildLetterhead();
+        this.itemTablePrototype = buildItemTable();
+    }
+    
+    public void render(InvoiceDto invoice, List<OrderItemRow> items, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4, 40, 40, 40, 40);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            // Leave the target open: archive entries share one stream
+            writer.setCloseStream(false);
+            document.open();
+            
+            document.add(new PdfPTable(letterheadPrototype));
+            document.add(details(invoice));
+            
+            PdfPTable itemTable = new PdfPTable(itemTablePrototype);
+            for (OrderItemRow item : items) {
+                itemTable.addCell(cell(item.productName() != null ? item.productName() : "Product #" + item.productId(),
+                        bodyFont, Element.ALIGN_LEFT));
+                itemTable.addCell(cell(String.valueOf(item.quantity()), bodyFont, Element.ALIGN_RIGHT));
+                itemTable.addCell(cell(amount(item.price()), bodyFont, Element.ALIGN_RIGHT));
+                itemTable.addCell(cell(amount(item.subtotal()), bodyFont, Element.ALIGN_RIGHT));
+            }
+            document.add(itemTable);
+            document.add(totals(invoice));
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Could not render invoice " + invoice.getInvoiceNumber(), e);
+        }
+    }
+    
+    private PdfPTable buildLetterhead() {
+        PdfPTable letterhead = new PdfPTable(2);
+        letterhead.setWidthPercentage(100);
+        letterhead.addCell(cell("INVOICE", titleFont, Element.ALIGN_LEFT));
+        letterhead.addCell(cell("Order Service\nStock Management", bodyFont, Element.ALIGN_RIGHT));
+        letterhead.setSpacingAfter(20);
+        return letterhead;
+    }
+    
+    private PdfPTable buildItemTable() throws DocumentException {
+        PdfPTable table = new PdfPTable(ITEM_COLUMN_WIDTHS.length);
+        table.setWidthPercentage(100);
+        table.setWidths(ITEM_COLUMN_WIDTHS);
+        // Repeated at the top of every page the table spans
+        table.setHeaderRows(1);
+        for (String header : new String[]{"Product", "Quantity", "Unit price", "Subtotal"}) {
+            PdfPCell cell = cell(header, labelFont, header.equals("Product") ? Element.ALIGN_LEFT : Element.ALIGN_RIGHT);
+            cell.setBorder(Rectangle.BOTTOM);
+            cell.setBackgroundColor(BaseColor.LIGHT_GRAY);
+            table.addCell(cell);
+        }
+        table.setSpacingAfter(15);
+        return table;
+    }
+    
+    private PdfPTable details(InvoiceDto invoice) {
+        PdfPTable details = new PdfPTable(2);
+        details.setWidthPercentage(50);
+        details.setHorizontalAlignment(Element.ALIGN_LEFT);
+        addRow(details, "Invoice number", invoice.getInvoiceNumber());
+        addRow(details, "Order", String.valueOf(invoice.getOrderId()));
+        addRow(details, "Issue date", invoice.getIssueDate() != null ? invoice.getIssueDate().format(DATE_FORMAT) : "");
+        addRow(details, "Due date", invoice.getDueDate() != null ? invoice.getDueDate().format(DATE_FORMAT) : "");
+        addRow(details, "Payment status", invoice.getPaymentStatus() != null ? invoice.getPaymentStatus() : "");
+        details.setSpacingAfter(20);
+        return details;
+    }
+    
+    private Paragraph totals(InvoiceDto invoice) {
+        double total = invoice.getTotalAmount() != null ? invoice.getTotalAmount() : 0.0;
+        double tax = invoice.getTaxAmount() != null ? invoice.getTaxAmount() : 0.0;
+        Paragraph totals = new Paragraph();
+        totals.setAlignment(Element.ALIGN_RIGHT);
+        totals.add(new Phrase("Subtotal: " + amount(total - tax) + "\n", bodyFont));
+        totals.add(new Phrase("Tax: " + amount(tax) + "\n", bodyFont));
+        totals.add(new Phrase("Total: " + amount(total), labelFont));
+        return totals;
+    }
+    
+    private void addRow(PdfPTable table, String label, String value) {
+        table.addCell(cell(label, labelFont, Element.ALIGN_LEFT));
+        table.addCell(cell(value, bodyFont, Element.ALIGN_LEFT));
+    }
+    
+    private static PdfPCell cell(String text, Font font, int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setHorizontalAlignment(alignment);
+        cell.setPadding(4);
+        return cell;
+    }
+    
+    private static String amount(Double value) {
+        return String.format(Locale.ROOT, "%.2f", value != null ? value : 0.0);
+    }
+}
@@ -2,9 +2,13 @@ package com.project.orderservice.service;
 
 
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import com.project.orderservice.dto.CursorPageDto;
 import com.project.orderservice.dto.InvoiceDto;
 import com.project.orderservice.model.Invoice;
 import com.project.orderservice.model.Order;
@@ -12,6 +16,8 @@ import com.project.orderservice.model.Order;
 public interface InvoiceService {
     InvoiceDto getInvoiceById(Long id);
     
+    long getInvoiceVersion(Long id);
+    
     InvoiceDto getInvoiceByOrderId(Long orderId);
     
     InvoiceDto getInvoiceByInvoiceNumber(String invoiceNumber);
@@ -20,7 +26,19 @@ public interface InvoiceService {
     
     List<InvoiceDto> getInvoicesByDateRange(LocalDateTime startDate, LocalDateTime endDate);
     
+    CursorPageDto<InvoiceDto> getInvoicesPage(String cursor, Integer size);
+    
+    CursorPageDto<InvoiceDto> getInvoicesByDateRangePage(LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer size);
+    
     Invoice generateInvoice(Order order);
     
+    List<Invoice> generateInvoices(List<Order> orders);
+    
     InvoiceDto updateInvoicePaymentStatus(Long id, String paymentStatus);
+    
+    int updatePaymentStatusForOrders(Collection<Long> orderIds, String paymentStatus);
+    
+    void writeInvoicePdf(InvoiceDto invoice, OutputStream out) throws IOException;
+    
+    void writeInvoicePdfArchive(LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException;
 }
\ No newline at end of file
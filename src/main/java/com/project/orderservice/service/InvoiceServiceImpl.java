@@ -1,30 +1,70 @@
 package com.project.orderservice.service;
 
 
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.project.orderservice.config.PaginationProperties;
+import com.project.orderservice.dto.CursorPageDto;
 import com.project.orderservice.dto.InvoiceDto;
 import com.project.orderservice.exception.ResourceNotFoundException;
 import com.project.orderservice.model.Invoice;
 import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderStatus;
 import com.project.orderservice.repository.InvoiceRepository;
+import com.project.orderservice.repository.OrderItemRepository;
+import com.project.orderservice.repository.projection.OrderItemRow;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 public class InvoiceServiceImpl implements InvoiceService {
     
+    // Invoices loaded per query while building an archive
+    private static final int ARCHIVE_PAGE_SIZE = 200;
+    // Rendered invoices waiting for their turn in the archive, per export
+    private static final int ARCHIVE_MAX_IN_FLIGHT = 16;
+    
     private final InvoiceRepository invoiceRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InvoicePdfRenderer pdfRenderer;
+    private final AsyncTaskExecutor pdfExecutor;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final PaginationProperties paginationProperties;
     
     @Autowired
-    public InvoiceServiceImpl(InvoiceRepository invoiceRepository) {
+    public InvoiceServiceImpl(
+            InvoiceRepository invoiceRepository,
+            OrderItemRepository orderItemRepository,
+            InvoicePdfRenderer pdfRenderer,
+            @Qualifier("invoicePdfExecutor") AsyncTaskExecutor pdfExecutor,
+            InvoiceNumberAllocator invoiceNumberAllocator,
+            PaginationProperties paginationProperties) {
         this.invoiceRepository = invoiceRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.pdfRenderer = pdfRenderer;
+        this.pdfExecutor = pdfExecutor;
+        this.invoiceNumberAllocator = invoiceNumberAllocator;
+        this.paginationProperties = paginationProperties;
     }
     
     @Override
@@ -35,6 +75,14 @@ public class InvoiceServiceImpl implements InvoiceService {
         return mapToDto(invoice);
     }
     
+    // Read on the primary: a lagging replica would answer 304 with the version from before a write
+    @Override
+    @Transactional
+    public long getInvoiceVersion(Long id) {
+        return invoiceRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice not found with id: " + id));
+    }
+    
     @Override
     public InvoiceDto getInvoiceByOrderId(Long orderId) {
         Invoice invoice = invoiceRepository.findByOrderId(orderId)
@@ -52,29 +100,60 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<InvoiceDto> getAllInvoices() {
-        List<Invoice> invoices = invoiceRepository.findAll();
-        return invoices.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return cappedList(invoiceRepository.findAllDtos(limit(paginationProperties.getMaxListSize())), "/api/invoices/page");
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<InvoiceDto> getInvoicesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Invoice> invoices = invoiceRepository.findByIssueDateBetween(startDate, endDate);
-        return invoices.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return cappedList(invoiceRepository.findDtosByIssueDateBetween(
+                startDate, endDate, limit(paginationProperties.getMaxListSize())), "/api/invoices/date-range/page");
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<InvoiceDto> getInvoicesPage(String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, KeysetCursor.MIN_TIMESTAMP);
+        return toPage(invoiceRepository.findPage(after.timestamp(), after.id(), limit(pageSize)), pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<InvoiceDto> getInvoicesByDateRangePage(LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, startDate);
+        return toPage(invoiceRepository.findPageByIssueDateBefore(
+                endDate, after.timestamp(), after.id(), limit(pageSize)), pageSize);
     }
     
     @Override
     @Transactional
     public Invoice generateInvoice(Order order) {
+        return invoiceRepository.save(newInvoice(order));
+    }
+    
+    @Override
+    @Transactional
+    public List<Invoice> generateInvoices(List<Order> orders) {
+        List<Invoice> invoices = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            Invoice invoice = newInvoice(order);
+            order.setInvoice(invoice);
+            invoices.add(invoice);
+        }
+        return invoiceRepository.saveAll(invoices);
+    }
+    
+    private Invoice newInvoice(Order order) {
         Invoice invoice = new Invoice();
         invoice.setOrder(order);
-        invoice.setInvoiceNumber(generateInvoiceNumber(order));
-        invoice.setIssueDate(LocalDateTime.now());
-        invoice.setDueDate(LocalDateTime.now().plusDays(30)); // 30 days payment term
+        LocalDateTime issueDate = LocalDateTime.now();
+        invoice.setInvoiceNumber(invoiceNumberAllocator.nextInvoiceNumber(order, issueDate));
+        invoice.setIssueDate(issueDate);
+        invoice.setDueDate(issueDate.plusDays(30)); // 30 days payment term
         
         // Use the order's total amount as subtotal
         Double subtotal = order.getTotalAmount();
@@ -88,9 +167,10 @@ public class InvoiceServiceImpl implements InvoiceService {
         // FIXED: Calculate the correct total amount (subtotal + tax)
         invoice.setTotalAmount(subtotal + taxAmount);
         
-        invoice.setPaymentStatus("UNPAID");
+        // Issued after the fact (see InvoiceEventSubscriber), the order may already have been delivered
+        invoice.setPaymentStatus(order.getStatus() == OrderStatus.DELIVERED ? "PAID" : "UNPAID");
         
-        return invoiceRepository.save(invoice);
+        return invoice;
     }
     
     @Override
@@ -105,16 +185,119 @@ public class InvoiceServiceImpl implements InvoiceService {
         return mapToDto(updatedInvoice);
     }
     
-    private String generateInvoiceNumber(Order order) {
-        // Generate invoice number format: INV-YYYYMMDD-ORDERID
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
-        return "INV-" + order.getOrderDate().format(formatter) + "-" + order.getId();
+    @Override
+    @Transactional
+    public int updatePaymentStatusForOrders(Collection<Long> orderIds, String paymentStatus) {
+        return invoiceRepository.updatePaymentStatusByOrderIdIn(orderIds, paymentStatus);
+    }
+    
+    @Override
+    public void writeInvoicePdf(InvoiceDto invoice, OutputStream out) throws IOException {
+        pdfRenderer.render(invoice, orderItemRepository.findRowsByOrderIdIn(List.of(invoice.getOrderId())), out);
+    }
+    
+    /**
+     * Writes one PDF per invoice issued in the range into a ZIP, in issue-date order. Invoices are read
+     * page by page and rendered in parallel on the bounded PDF pool; each PDF is buffered only until the
+     * entries before it have been written, and at most ARCHIVE_MAX_IN_FLIGHT are held at a time.
+     */
+    @Override
+    public void writeInvoicePdfArchive(LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Deque<Future<RenderedInvoice>> inFlight = new ArrayDeque<>();
+        try {
+            KeysetCursor after = KeysetCursor.first(startDate);
+            List<InvoiceDto> page;
+            do {
+                page = invoiceRepository.findPageByIssueDateBefore(endDate, after.timestamp(), after.id(),
+                        PageRequest.of(0, ARCHIVE_PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                Map<Long, List<OrderItemRow>> itemsByOrder = orderItemRepository
+                        .findRowsByOrderIdIn(page.stream().map(InvoiceDto::getOrderId).toList()).stream()
+                        .collect(Collectors.groupingBy(OrderItemRow::orderId));
+                for (InvoiceDto invoice : page) {
+                    if (inFlight.size() >= ARCHIVE_MAX_IN_FLIGHT) {
+                        writeEntry(zip, inFlight.removeFirst());
+                    }
+                    List<OrderItemRow> items = itemsByOrder.getOrDefault(invoice.getOrderId(), List.of());
+                    inFlight.addLast(pdfExecutor.submit(() -> renderToMemory(invoice, items)));
+                }
+                InvoiceDto last = page.get(page.size() - 1);
+                after = new KeysetCursor(last.getIssueDate(), last.getId());
+            } while (page.size() == ARCHIVE_PAGE_SIZE);
+            
+            while (!inFlight.isEmpty()) {
+                writeEntry(zip, inFlight.removeFirst());
+            }
+            zip.finish();
+        } finally {
+            // Stop rendering invoices nobody will read, e.g. after the client went away
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    private record RenderedInvoice(String fileName, ByteArrayOutputStream pdf) {
+    }
+    
+    private RenderedInvoice renderToMemory(InvoiceDto invoice, List<OrderItemRow> items) throws IOException {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream(8 * 1024);
+        pdfRenderer.render(invoice, items, pdf);
+        return new RenderedInvoice(invoice.getInvoiceNumber() + ".pdf", pdf);
+    }
+    
+    private static void writeEntry(ZipOutputStream zip, Future<RenderedInvoice> future) throws IOException {
+        RenderedInvoice rendered;
+        try {
+            rendered = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering invoices", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not render invoice", e.getCause());
+        }
+        zip.putNextEntry(new ZipEntry(rendered.fileName()));
+        rendered.pdf().writeTo(zip);
+        zip.closeEntry();
+    }
+    
+    // One row past the page size tells us whether another page exists
+    private static Pageable limit(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+    
+    // The unpaged listings read one row past the cap and refuse the request rather than return a partial list
+    private List<InvoiceDto> cappedList(List<InvoiceDto> invoices, String pagedPath) {
+        int maxListSize = paginationProperties.getMaxListSize();
+        if (invoices.size() > maxListSize) {
+            throw new IllegalArgumentException(
+                    "More than " + maxListSize + " invoices match; use " + pagedPath + " to page through them");
+        }
+        return invoices;
+    }
+    
+    private CursorPageDto<InvoiceDto> toPage(List<InvoiceDto> invoices, int pageSize) {
+        boolean hasMore = invoices.size() > pageSize;
+        List<InvoiceDto> items = hasMore ? new ArrayList<>(invoices.subList(0, pageSize)) : invoices;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            InvoiceDto last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getIssueDate(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, nextCursor);
     }
     
     private InvoiceDto mapToDto(Invoice invoice) {
-        InvoiceDto invoiceDto = new InvoiceDto();
-        BeanUtils.copyProperties(invoice, invoiceDto);
-        invoiceDto.setOrderId(invoice.getOrder().getId());
-        return invoiceDto;
+        return new InvoiceDto(
+                invoice.getId(),
+                invoice.getInvoiceNumber(),
+                invoice.getOrder().getId(),
+                invoice.getIssueDate(),
+                invoice.getDueDate(),
+                invoice.getTotalAmount(),
+                invoice.getTaxAmount(),
+                invoice.getPaymentStatus());
     }
 }
\ No newline at end of file
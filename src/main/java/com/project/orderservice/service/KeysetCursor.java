@@ -0,0 +1,39 @@
+package com.project.orderservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by (timestamp, id). Encoded as an opaque URL-safe string for clients.
+ */
+record KeysetCursor(LocalDateTime timestamp, Long id) {
+    
+    // Earliest DATETIME MySQL accepts; used as the lower bound of an unfiltered first page
+    static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1000, 1, 1, 0, 0);
+    
+    static KeysetCursor first(LocalDateTime lowerBound) {
+        return new KeysetCursor(lowerBound, 0L);
+    }
+    
+    static KeysetCursor decodeOrFirst(String cursor, LocalDateTime lowerBound) {
+        if (cursor == null || cursor.isBlank()) {
+            return first(lowerBound);
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            return new KeysetCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+    }
+    
+    String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
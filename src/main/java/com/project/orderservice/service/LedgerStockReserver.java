@@ -0,0 +1,331 @@
+package com.project.orderservice.service;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.project.orderservice.client.ProductClient;
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.dto.StockReservationDto;
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reserves stock from per-product leases held in memory. A lease is a block of units this node has
+ * already taken from product-service through the reservation endpoint, so leased units can never be
+ * sold twice across nodes; orders covered by a lease are reserved with a compare-and-set and no remote
+ * call. A short lease is topped up in the same product-service call that reserves whatever the lease
+ * could not cover, so an order still makes at most one remote call.
+ * Oversell protection: leases never take a product's last {@code headroom} units; orders for those
+ * are reserved exactly against product-service, so the final units are not stranded on one node.
+ * Rolled-back orders and deleted orders give their units back to the lease. Every reconcile interval,
+ * units above one lease are returned to product-service in a single call, and leases idle for a whole
+ * interval are returned completely; everything is returned on shutdown. Until then product-service
+ * counts leased units as sold. Every change to a lease is recorded in the {@link StockLeaseJournal}, and
+ * a restarted node takes back the units its journal says it still holds, so a crash strands none of them.
+ */
+@Component
+@ConditionalOnProperty(name = "order.stock.reserver", havingValue = "ledger")
+public class LedgerStockReserver implements StockReserver {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerStockReserver.class);
+
+    private final ProductClient productClient;
+    private final StockLeaseJournal journal;
+    private final int leaseSize;
+    private final int headroom;
+    private final ConcurrentMap<Long, Lease> leases = new ConcurrentHashMap<>();
+    private final Counter localReservations;
+    private final Counter remoteReservations;
+
+    @Autowired
+    public LedgerStockReserver(
+            ProductClient productClient,
+            StockLeaseJournal journal,
+            MeterRegistry meterRegistry,
+            @Value("${order.stock.ledger.lease-size:50}") int leaseSize,
+            @Value("${order.stock.ledger.headroom:10}") int headroom) {
+        this.productClient = productClient;
+        this.journal = journal;
+        this.leaseSize = leaseSize;
+        this.headroom = headroom;
+        this.localReservations = Counter.builder("orderservice.stock.ledger.reservations")
+                .description("Order lines reserved entirely from a lease")
+                .tag("path", "local")
+                .register(meterRegistry);
+        this.remoteReservations = Counter.builder("orderservice.stock.ledger.reservations")
+                .description("Order lines that needed a product-service call")
+                .tag("path", "remote")
+                .register(meterRegistry);
+        Gauge.builder("orderservice.stock.ledger.leased", this, LedgerStockReserver::leasedUnits)
+                .description("Units held in leases and not yet reserved by an order")
+                .register(meterRegistry);
+    }
+
+    // The leases this node held when it stopped; reconciliation returns the ones nothing orders from
+    @PostConstruct
+    public void recover() {
+        Map<Long, Long> balances = journal.balances();
+        balances.forEach((productId, units) -> {
+            if (units > 0) {
+                leases.computeIfAbsent(productId, id -> new Lease()).give(units);
+            }
+        });
+        if (!balances.isEmpty()) {
+            log.info("Recovered stock leases from the journal: {}", balances);
+        }
+    }
+
+    @Override
+    public void reserve(Map<Long, Integer> quantities, Map<Long, ProductDto> products) {
+        // Take what the leases cover; the rest is reserved remotely, topping the lease up where allowed
+        Map<Long, Integer> fromLeases = new LinkedHashMap<>();
+        Map<Long, Integer> remaining = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+            Lease lease = leases.get(requested.getKey());
+            int taken = lease != null ? lease.takeUpTo(requested.getValue()) : 0;
+            if (taken > 0) {
+                fromLeases.put(requested.getKey(), taken);
+            }
+            if (taken < requested.getValue()) {
+                remaining.put(requested.getKey(), requested.getValue() - taken);
+            }
+        }
+
+        Map<Long, Integer> remote = Map.of();
+        if (remaining.isEmpty()) {
+            localReservations.increment(quantities.size());
+        } else {
+            try {
+                remote = reserveRemaining(remaining, products);
+            } catch (RuntimeException e) {
+                giveBack(fromLeases);
+                throw e;
+            }
+            // Units that came with a top-up belong to the lease, so a rollback gives them back there
+            for (Map.Entry<Long, Integer> toppedUp : remaining.entrySet()) {
+                if (!remote.containsKey(toppedUp.getKey())) {
+                    fromLeases.merge(toppedUp.getKey(), toppedUp.getValue(), Integer::sum);
+                }
+            }
+            localReservations.increment(quantities.size() - remote.size());
+            remoteReservations.increment(remote.size());
+        }
+
+        Map<Long, Integer> reservedRemotely = remote;
+        StockReservations.onRollback(() -> {
+            giveBack(fromLeases);
+            if (!reservedRemotely.isEmpty()) {
+                try {
+                    productClient.reserveStock(new StockReservationDto("order-release-" + UUID.randomUUID(),
+                            StockReservations.toAdjustments(reservedRemotely, 1)));
+                } catch (FeignException | ServiceUnavailableException e) {
+                    log.error("Error releasing stock of rolled back order {}: {}", reservedRemotely, e.getMessage());
+                }
+            }
+        });
+        // Part of the order's transaction: a rollback removes these entries as the callback above refills the lease
+        journal.recordTaken(fromLeases);
+    }
+
+    // Returns the quantities that were reserved for the order alone, without a lease top-up
+    private Map<Long, Integer> reserveRemaining(Map<Long, Integer> remaining, Map<Long, ProductDto> products) {
+        Map<Long, Integer> exact = new LinkedHashMap<>();
+        Map<Long, Integer> withTopUps = new LinkedHashMap<>();
+        Map<Long, Lease> refilling = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : remaining.entrySet()) {
+            ProductDto product = products.get(entry.getKey());
+            if (product.getQuantity() < entry.getValue()) {
+                throw StockReservations.insufficientStock(product);
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : remaining.entrySet()) {
+            ProductDto product = products.get(entry.getKey());
+            int needed = entry.getValue();
+            int leasable = product.getQuantity() - headroom;
+            // One thread tops a lease up at a time; the others reserve exactly rather than over-lease
+            Lease lease = leasable >= needed ? leases.computeIfAbsent(entry.getKey(), id -> new Lease()) : null;
+            if (lease != null && lease.refilling.compareAndSet(false, true)) {
+                refilling.put(entry.getKey(), lease);
+                withTopUps.put(entry.getKey(), Math.min(Math.max(leaseSize, needed), leasable));
+            } else {
+                exact.put(entry.getKey(), needed);
+                withTopUps.put(entry.getKey(), needed);
+            }
+        }
+
+        try {
+            try {
+                productClient.reserveStock(new StockReservationDto("order-" + UUID.randomUUID(),
+                        StockReservations.toAdjustments(withTopUps, -1)));
+            } catch (FeignException.Conflict e) {
+                if (refilling.isEmpty()) {
+                    throw new IllegalArgumentException(StockReservations.INSUFFICIENT_STOCK);
+                }
+                // The product quantities were slightly stale: retry for the order alone, without top-ups
+                try {
+                    productClient.reserveStock(new StockReservationDto("order-" + UUID.randomUUID(),
+                            StockReservations.toAdjustments(remaining, -1)));
+                } catch (FeignException.Conflict again) {
+                    throw new IllegalArgumentException(StockReservations.INSUFFICIENT_STOCK);
+                }
+                return remaining;
+            }
+            Map<Long, Integer> acquired = new LinkedHashMap<>();
+            refilling.keySet().forEach(productId -> acquired.put(productId, withTopUps.get(productId)));
+            try {
+                // The order's own units are recorded as taken with the order, so a rollback leaves them leased
+                journal.recordAcquired(acquired);
+            } catch (RuntimeException e) {
+                // Unrecorded units would only be stranded after a crash; the order itself need not fail
+                log.warn("Could not record leased stock {}: {}", acquired, e.getMessage());
+            }
+            refilling.forEach((productId, lease) -> {
+                lease.reserved.add(remaining.get(productId));
+                lease.give(withTopUps.get(productId) - remaining.get(productId));
+            });
+            return exact;
+        } finally {
+            refilling.values().forEach(lease -> lease.refilling.set(false));
+        }
+    }
+
+    @Override
+    public void restore(String referenceId, Map<Long, Integer> quantities) {
+        Map<Long, Integer> remote = new LinkedHashMap<>();
+        Map<Long, Integer> leased = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (leases.containsKey(productId)) {
+                leased.put(productId, quantity);
+            } else {
+                remote.put(productId, quantity);
+            }
+        });
+        // The remote part goes first, so a failed call leaves nothing credited when the restore is retried.
+        // product-service ignores a repeated referenceId, and the journal credits the leases once per referenceId
+        if (!remote.isEmpty()) {
+            productClient.reserveStock(new StockReservationDto(referenceId, StockReservations.toAdjustments(remote, 1)));
+        }
+        if (journal.recordRestored(referenceId, leased)) {
+            giveBack(leased);
+        }
+    }
+    
+    // Keeps one lease of stock per product still being ordered and hands everything else back in one call
+    @Scheduled(fixedDelayString = "${order.stock.ledger.reconcile-interval:PT30S}")
+    public void reconcile() {
+        Map<Long, Integer> surplus = new LinkedHashMap<>();
+        leases.forEach((productId, lease) -> {
+            long keep = lease.reserved.sumThenReset() > 0 ? leaseSize : 0;
+            int returned = lease.takeAbove(keep);
+            if (returned > 0) {
+                surplus.put(productId, returned);
+            }
+        });
+        returnToProductService(surplus);
+        journal.compact();
+    }
+
+    @PreDestroy
+    public void returnAll() {
+        Map<Long, Integer> surplus = new LinkedHashMap<>();
+        leases.forEach((productId, lease) -> {
+            int returned = lease.takeAbove(0);
+            if (returned > 0) {
+                surplus.put(productId, returned);
+            }
+        });
+        returnToProductService(surplus);
+    }
+
+    private void returnToProductService(Map<Long, Integer> surplus) {
+        if (surplus.isEmpty()) {
+            return;
+        }
+        // Recorded before the call: a crash in between strands the units as sold rather than leasing them twice
+        try {
+            journal.recordReturned(surplus);
+        } catch (RuntimeException e) {
+            giveBack(surplus);
+            log.warn("Could not record the return of leased stock {}: {}", surplus, e.getMessage());
+            return;
+        }
+        try {
+            productClient.reserveStock(new StockReservationDto("stock-lease-return-" + UUID.randomUUID(),
+                    StockReservations.toAdjustments(surplus, 1)));
+        } catch (FeignException | ServiceUnavailableException e) {
+            // Still leased; the next reconciliation tries again
+            giveBack(surplus);
+            log.warn("Could not return leased stock {}: {}", surplus, e.getMessage());
+            try {
+                journal.recordAcquired(surplus);
+            } catch (RuntimeException journalError) {
+                log.warn("Could not record leased stock {}: {}", surplus, journalError.getMessage());
+            }
+        }
+    }
+
+    private void giveBack(Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> leases.get(productId).give(quantity));
+    }
+
+    private double leasedUnits() {
+        return leases.values().stream().mapToLong(lease -> lease.available.get()).sum();
+    }
+
+    private static final class Lease {
+        // Units this node holds and no order has taken yet
+        private final AtomicLong available = new AtomicLong();
+        // Units handed out since the last reconciliation; only summed there, so striped to keep takes cheap
+        private final LongAdder reserved = new LongAdder();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+
+        int takeUpTo(int wanted) {
+            while (true) {
+                long current = available.get();
+                if (current <= 0) {
+                    return 0;
+                }
+                int taken = (int) Math.min(current, wanted);
+                if (available.compareAndSet(current, current - taken)) {
+                    reserved.add(taken);
+                    return taken;
+                }
+            }
+        }
+
+        int takeAbove(long keep) {
+            while (true) {
+                long current = available.get();
+                if (current <= keep) {
+                    return 0;
+                }
+                if (available.compareAndSet(current, keep)) {
+                    return (int) (current - keep);
+                }
+            }
+        }
+
+        void give(long units) {
+            available.addAndGet(units);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.project.orderservice.service;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.client.CustomerClient;
+import com.project.orderservice.dto.LoyaltyActivityDto;
+import com.project.orderservice.exception.ServiceUnavailableException;
+import com.project.orderservice.model.LoyaltyOutboxEntry;
+import com.project.orderservice.model.LoyaltyOutboxStatus;
+import com.project.orderservice.repository.LoyaltyOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers pending loyalty activities to customer-service.
+ * Each round claims a batch of due rows in a short transaction (leasing them so other instances skip
+ * them), calls customer-service with no transaction open, then records the outcomes in a second
+ * short transaction. Failed deliveries are retried with exponential backoff; the entry's
+ * referenceId lets customer-service recognise a retry of an activity it has already applied.
+ */
+@Component
+public class LoyaltyOutboxDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoyaltyOutboxDispatcher.class);
+    
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    private final LoyaltyOutboxRepository outboxRepository;
+    private final CustomerClient customerClient;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    
+    @Autowired
+    public LoyaltyOutboxDispatcher(
+            LoyaltyOutboxRepository outboxRepository,
+            CustomerClient customerClient,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${order.loyalty-outbox.batch-size:100}") int batchSize,
+            @Value("${order.loyalty-outbox.lease:1m}") Duration lease,
+            @Value("${order.loyalty-outbox.initial-backoff:5s}") Duration initialBackoff,
+            @Value("${order.loyalty-outbox.max-backoff:10m}") Duration maxBackoff,
+            @Value("${order.loyalty-outbox.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.customerClient = customerClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+    }
+    
+    @Scheduled(fixedDelayString = "${order.loyalty-outbox.poll-interval:PT2S}",
+            initialDelayString = "${order.loyalty-outbox.poll-interval:PT2S}")
+    public void dispatchPending() {
+        // Keep draining full batches; stop when the backlog is empty or customer-service is unavailable
+        while (dispatchBatch()) {
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${order.loyalty-outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} delivered loyalty outbox entries", purged);
+        }
+    }
+    
+    /**
+     * Claims and delivers one batch of due entries.
+     * @return whether a full batch went through, i.e. more entries may be due right now
+     */
+    public boolean dispatchBatch() {
+        List<LoyaltyOutboxEntry> batch = claim();
+        if (batch.isEmpty()) {
+            return false;
+        }
+        
+        boolean interrupted = false;        
+        List<Long> sent = new ArrayList<>();
+        List<LoyaltyOutboxEntry> changed = new ArrayList<>();
+        for (LoyaltyOutboxEntry entry : batch) {
+            try {
+                customerClient.addLoyaltyPoints(entry.getCustomerId(), toActivity(entry));
+                sent.add(entry.getId());
+            } catch (FeignException.Conflict e) {
+                // customer-service already holds an activity with this referenceId
+                sent.add(entry.getId());
+            } catch (FeignException.BadRequest | FeignException.NotFound e) {
+                log.error("Loyalty activity {} for customer {} rejected by customer-service: {}",
+                        entry.getReferenceId(), entry.getCustomerId(), e.getMessage());
+                entry.setStatus(LoyaltyOutboxStatus.FAILED);
+                entry.setLastError(truncate(e.getMessage()));
+                changed.add(entry);
+                record("failed");
+            } catch (ServiceUnavailableException e) {
+                // Breaker open or bulkhead full: the rest of the batch stays leased and is retried later
+                retryLater(entry, e);
+                changed.add(entry);
+                interrupted = true;
+                break;
+            } catch (RuntimeException e) {
+                retryLater(entry, e);
+                changed.add(entry);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxRepository.markSent(sent, now);
+            }
+            outboxRepository.saveAll(changed);
+        });
+        meterRegistry.counter("orderservice.loyalty.outbox.deliveries", "outcome", "sent").increment(sent.size());
+        return !interrupted && batch.size() == batchSize;
+    }
+    
+    private List<LoyaltyOutboxEntry> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            List<LoyaltyOutboxEntry> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            // Leased until the outcome is recorded; if this instance dies the entries become due again
+            for (LoyaltyOutboxEntry entry : due) {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+    }
+    
+    private void retryLater(LoyaltyOutboxEntry entry, RuntimeException e) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(entry.getAttempts() - 1, 20));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        entry.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        entry.setLastError(truncate(e.getMessage()));
+        log.warn("Loyalty activity {} delivery attempt {} failed, retrying in {}: {}",
+                entry.getReferenceId(), entry.getAttempts(), backoff, e.getMessage());
+        record("retry");
+    }
+    
+    private void record(String outcome) {
+        meterRegistry.counter("orderservice.loyalty.outbox.deliveries", "outcome", outcome).increment();
+    }
+    
+    private LoyaltyActivityDto toActivity(LoyaltyOutboxEntry entry) {
+        LoyaltyActivityDto activityDto = new LoyaltyActivityDto();
+        activityDto.setCustomerId(entry.getCustomerId());
+        activityDto.setType(entry.getType());
+        activityDto.setPoints(entry.getPoints());
+        activityDto.setAmount(entry.getAmount());
+        activityDto.setDescription(entry.getDescription());
+        activityDto.setReferenceId(entry.getReferenceId());
+        activityDto.setCreatedAt(entry.getCreatedAt());
+        return activityDto;
+    }
+    
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.orderservice.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.project.orderservice.model.Order;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// The original scheme, INV-<order date>-<order id>; needs the order's id to be assigned first
+@Component
+@ConditionalOnProperty(name = "order.invoice-number.allocator", havingValue = "order-id")
+public class OrderIdInvoiceNumberAllocator implements InvoiceNumberAllocator {
+    
+    private static final DateTimeFormatter INVOICE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    
+    @Override
+    public String nextInvoiceNumber(Order order, LocalDateTime issueDate) {
+        return "INV-" + order.getOrderDate().format(INVOICE_DATE_FORMAT) + "-" + order.getId();
+    }
+}
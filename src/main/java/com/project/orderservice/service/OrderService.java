@@ -4,6 +4,10 @@ package com.project.orderservice.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+
+import com.project.orderservice.dto.BulkStatusUpdateResponse;
+import com.project.orderservice.dto.CursorPageDto;
 
 import com.project.orderservice.dto.OrderDto;
 import com.project.orderservice.model.OrderStatus;
@@ -11,14 +15,23 @@ import com.project.orderservice.model.OrderStatus;
 public interface OrderService {
     OrderDto createOrder(OrderDto orderDto);
     
+    List<OrderDto> createOrders(List<OrderDto> orderDtos);
+    
     OrderDto getOrderById(Long id);
     
+    // The order as stored, for callers that look the customer up themselves
+    OrderDto getOrderByIdWithoutCustomerName(Long id);
+    
+    long getOrderVersion(Long id);
+    
     List<OrderDto> getAllOrders();
     
     OrderDto updateOrder(Long id, OrderDto orderDto);
     
     OrderDto updateOrderStatus(Long id, OrderStatus status);
     
+    BulkStatusUpdateResponse updateOrderStatuses(List<Long> orderIds, OrderStatus status);
+    
     void deleteOrder(Long id);
     
     List<OrderDto> getOrdersByCustomerId(Long customerId);
@@ -26,4 +39,17 @@ public interface OrderService {
     List<OrderDto> getOrdersByStatus(OrderStatus status);
     
     List<OrderDto> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+    
+    CursorPageDto<OrderDto> getOrdersPage(String cursor, Integer size);
+    
+    CursorPageDto<OrderDto> getOrdersByCustomerIdPage(Long customerId, String cursor, Integer size);
+    
+    CursorPageDto<OrderDto> getOrdersByStatusPage(OrderStatus status, String cursor, Integer size);
+    
+    CursorPageDto<OrderDto> getOrdersByCustomerIdAndStatusPage(Long customerId, OrderStatus status,
+            LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer size);
+    
+    CursorPageDto<OrderDto> getOrdersByDateRangePage(LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer size);
+    
+    void streamAllOrders(Consumer<OrderDto> consumer);
 }
@@ -1,66 +1,178 @@
 package com.project.orderservice.service;
 
 import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.project.orderservice.client.CustomerClient;
-import com.project.orderservice.client.ProductClient;
+import com.project.orderservice.client.ProductBatchLoader;
+import com.project.orderservice.config.PaginationProperties;
+import com.project.orderservice.dto.BulkStatusUpdateResponse;
+import com.project.orderservice.dto.CursorPageDto;
 import com.project.orderservice.dto.CustomerDto;
-import com.project.orderservice.dto.LoyaltyActivityDto;
 import com.project.orderservice.dto.LoyaltyActivityType;
 import com.project.orderservice.dto.OrderDto;
 import com.project.orderservice.dto.OrderItemDto;
 import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.dto.StatusUpdateResult;
+import com.project.orderservice.event.OrderCreated;
+import com.project.orderservice.event.OrderDeleted;
+import com.project.orderservice.event.OrderEventBus;
+import com.project.orderservice.event.OrderStatusChanged;
 import com.project.orderservice.exception.ResourceNotFoundException;
+import com.project.orderservice.exception.ServiceUnavailableException;
+import com.project.orderservice.model.LoyaltyOutboxEntry;
+import com.project.orderservice.model.LoyaltyOutboxStatus;
 import com.project.orderservice.model.Order;
 import com.project.orderservice.model.OrderItem;
 import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.model.StockRestoreEntry;
+import com.project.orderservice.model.StockRestoreStatus;
+import com.project.orderservice.repository.LoyaltyOutboxRepository;
 import com.project.orderservice.repository.OrderItemRepository;
 import com.project.orderservice.repository.OrderRepository;
+import com.project.orderservice.repository.StockRestoreRepository;
+import com.project.orderservice.repository.projection.OrderItemRow;
+import com.project.orderservice.repository.projection.OrderRow;
+import com.project.orderservice.repository.projection.OrderStatusRow;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderServiceImpl implements OrderService {
     
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
+    
+    // Keeps IN lists well below driver and optimizer limits
+    private static final int IN_LIST_CHUNK_SIZE = 1000;
+    
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final ProductClient productClient;
+    private final StockReserver stockReserver;
+    private final ProductBatchLoader productBatchLoader;
     private final CustomerClient customerClient;
-    private final InvoiceService invoiceService;
+    private final OrderEventBus orderEventBus;
+    private final LoyaltyOutboxRepository loyaltyOutboxRepository;
+    private final StockRestoreRepository stockRestoreRepository;
+    private final SalesRollupRecorder salesRollupRecorder;
+    private final PaginationProperties paginationProperties;
+    private final MeterRegistry meterRegistry;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     @Autowired
     public OrderServiceImpl(
             OrderRepository orderRepository,
             OrderItemRepository orderItemRepository,
-            ProductClient productClient,
+            StockReserver stockReserver,
+            ProductBatchLoader productBatchLoader,
             CustomerClient customerClient,
-            InvoiceService invoiceService) {
+            OrderEventBus orderEventBus,
+            LoyaltyOutboxRepository loyaltyOutboxRepository,
+            StockRestoreRepository stockRestoreRepository,
+            SalesRollupRecorder salesRollupRecorder,
+            PaginationProperties paginationProperties,
+            MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
-        this.productClient = productClient;
+        this.stockReserver = stockReserver;
+        this.productBatchLoader = productBatchLoader;
         this.customerClient = customerClient;
-        this.invoiceService = invoiceService;
+        this.orderEventBus = orderEventBus;
+        this.loyaltyOutboxRepository = loyaltyOutboxRepository;
+        this.stockRestoreRepository = stockRestoreRepository;
+        this.salesRollupRecorder = salesRollupRecorder;
+        this.paginationProperties = paginationProperties;
+        this.meterRegistry = meterRegistry;
     }
     
     @Override
     @Transactional
     public OrderDto createOrder(OrderDto orderDto) {
-        // Validate customer exists
-        CustomerDto customer;
+        return createOrders(List.of(orderDto)).get(0);
+    }
+    
+    @Override
+    @Transactional
+    public List<OrderDto> createOrders(List<OrderDto> orderDtos) {
+        // Validate each distinct customer once for the whole batch
+        Map<Long, CustomerDto> customers = new HashMap<>();
+        for (OrderDto orderDto : orderDtos) {
+            customers.computeIfAbsent(orderDto.getCustomerId(), this::requireCustomer);
+        }
+        
+        // Fetch every distinct product in one pass and validate stock against the combined quantities
+        Map<Long, Integer> requestedQuantities = new LinkedHashMap<>();
+        for (OrderDto orderDto : orderDtos) {
+            for (OrderItemDto itemDto : orderDto.getItems()) {
+                requestedQuantities.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+            }
+        }
+        
+        Map<Long, ProductDto> products = productBatchLoader.getProductsByIds(requestedQuantities.keySet());
+        
+        for (Long productId : requestedQuantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+        }
+        
+        List<Order> orders = new ArrayList<>(orderDtos.size());
+        for (OrderDto orderDto : orderDtos) {
+            orders.add(buildOrder(orderDto, products));
+        }
+        
+        // Reserve stock for every order in the batch at once; given back if this transaction rolls back
+        stockReserver.reserve(requestedQuantities, products);
+        
+        // Items cascade from their order; with pooled ids all inserts are flushed as JDBC batches at commit
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        for (Order savedOrder : savedOrders) {
+            salesRollupRecorder.orderCreated(SalesOrderSnapshot.of(savedOrder));
+            // Invoices are issued by InvoiceEventSubscriber once this commits
+            orderEventBus.publish(new OrderCreated(savedOrder.getId(), savedOrder.getCustomerId(), savedOrder.getTotalAmount()));
+        }
+        
+        List<OrderDto> responseDtos = new ArrayList<>(savedOrders.size());
+        for (Order savedOrder : savedOrders) {
+            OrderDto responseDto = mapToDto(savedOrder);
+            CustomerDto customer = customers.get(savedOrder.getCustomerId());
+            responseDto.setCustomerName(customer.getFirstName() + " " + customer.getLastName());
+            responseDtos.add(responseDto);
+        }
+        return responseDtos;
+    }
+    
+    private CustomerDto requireCustomer(Long customerId) {
         try {
-            customer = customerClient.getCustomerById(orderDto.getCustomerId());
+            return customerClient.getCustomerById(customerId);
         } catch (FeignException e) {
-            throw new ResourceNotFoundException("Customer not found with id: " + orderDto.getCustomerId());
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
         }
-        
-        // Create order entity
+    }
+    
+    private Order buildOrder(OrderDto orderDto, Map<Long, ProductDto> products) {
         Order order = new Order();
         order.setCustomerId(orderDto.getCustomerId());
         order.setOrderDate(LocalDateTime.now());
@@ -68,20 +180,8 @@ public class OrderServiceImpl implements OrderService {
         
         // Process order items
         double totalAmount = 0.0;
-        List<OrderItem> orderItems = new ArrayList<>();
-        
         for (OrderItemDto itemDto : orderDto.getItems()) {
-            // Validate product exists and has sufficient stock
-            ProductDto product;
-            try {
-                product = productClient.getProductById(itemDto.getProductId());
-            } catch (FeignException e) {
-                throw new ResourceNotFoundException("Product not found with id: " + itemDto.getProductId());
-            }
-            
-            if (product.getQuantity() < itemDto.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-            }
+            ProductDto product = products.get(itemDto.getProductId());
             
             // Create order item
             OrderItem orderItem = new OrderItem();
@@ -91,13 +191,10 @@ public class OrderServiceImpl implements OrderService {
             orderItem.setPrice(product.getPrice());
             orderItem.calculateSubtotal();
             
-            orderItems.add(orderItem);
+            order.addItem(orderItem);
             totalAmount += orderItem.getSubtotal();
-            
-            // Update product stock
-            product.setQuantity(product.getQuantity() - itemDto.getQuantity());
-            productClient.updateProduct(product.getId(), product);
         }
+        
         if (orderDto.getDiscountPercentage() != null && orderDto.getDiscountPercentage() > 0) {
             // Calculate discount amount
             double discountAmount = orderDto.getDiscountAmount() != null ? 
@@ -111,38 +208,19 @@ public class OrderServiceImpl implements OrderService {
             order.setDiscountAmount(discountAmount);
         }
         
-        // Set order items and total amount
         order.setTotalAmount(totalAmount);
-        Order savedOrder = orderRepository.save(order);
-        
-        // Set order reference for items and save them
-        for (OrderItem item : orderItems) {
-            item.setOrder(savedOrder);
-            orderItemRepository.save(item);
-        }
-        
-        // Generate invoice
-        invoiceService.generateInvoice(savedOrder);
-        
-        // Map back to DTO
-        OrderDto responseDto = mapToDto(savedOrder);
-        responseDto.setCustomerName(customer.getFirstName() + " " + customer.getLastName());
-        
-        return responseDto;
+        return order;
     }
     
     @Override
     public OrderDto getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
-        
-        OrderDto orderDto = mapToDto(order);
+        OrderDto orderDto = getOrderByIdWithoutCustomerName(id);
         
         // Enrich with customer name
         try {
-            CustomerDto customer = customerClient.getCustomerById(order.getCustomerId());
+            CustomerDto customer = customerClient.getCustomerById(orderDto.getCustomerId());
             orderDto.setCustomerName(customer.getFirstName() + " " + customer.getLastName());
-        } catch (FeignException e) {
+        } catch (FeignException | ServiceUnavailableException e) {
             orderDto.setCustomerName("Unknown Customer");
         }
         
@@ -150,12 +228,52 @@ public class OrderServiceImpl implements OrderService {
     }
     
     @Override
+    public OrderDto getOrderByIdWithoutCustomerName(Long id) {
+        Order order = orderRepository.findWithItemsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        return mapToDto(order);
+    }
+    
+    // Read on the primary: a lagging replica would answer 304 with the version from before a write
+    @Override
+    @Transactional
+    public long getOrderVersion(Long id) {
+        return orderRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        return orders.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return cappedList(limit -> orderRepository.findAllRows(limit), "/api/orders/page");
     }
+    private LoyaltyOutboxEntry loyaltyEntry(Long orderId, Long customerId, Double totalAmount) {
+        LocalDateTime now = LocalDateTime.now();
+        LoyaltyOutboxEntry entry = new LoyaltyOutboxEntry();
+        entry.setReferenceId(orderId.toString());
+        entry.setCustomerId(customerId);
+        entry.setType(LoyaltyActivityType.PURCHASE);
+        entry.setPoints(calculateLoyaltyPoints(totalAmount));
+        entry.setAmount(totalAmount);
+        entry.setDescription("Points awarded for order #" + orderId);
+        entry.setStatus(LoyaltyOutboxStatus.PENDING);
+        entry.setNextAttemptAt(now);
+        entry.setCreatedAt(now);
+        return entry;
+    }
+    
+    private StockRestoreEntry stockRestoreEntry(Long orderId, Map<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        StockRestoreEntry entry = new StockRestoreEntry();
+        entry.setReferenceId("order-delete-" + orderId);
+        entry.setOrderId(orderId);
+        entry.setQuantities(quantities);
+        entry.setStatus(StockRestoreStatus.PENDING);
+        entry.setNextAttemptAt(now);
+        entry.setCreatedAt(now);
+        return entry;
+    }
+    
     private int calculateLoyaltyPoints(double orderTotal) {
         // For example, 1 point per dollar spent
         return (int) orderTotal;
@@ -173,7 +291,7 @@ public class OrderServiceImpl implements OrderService {
         
         // Update order properties
         if (orderDto.getStatus() != null) {
-            order.setStatus(orderDto.getStatus());
+            changeStatus(order, orderDto.getStatus());
         }
         
         // Save updated order
@@ -188,56 +306,8 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
         
-        // Additional validation if needed
-        if (order.getStatus() == OrderStatus.CANCELLED && status != OrderStatus.CANCELLED) {
-            throw new IllegalStateException("Cannot change status of a cancelled order");
-        }
-        
-        if (order.getStatus() == OrderStatus.DELIVERED && status != OrderStatus.DELIVERED) {
-            throw new IllegalStateException("Cannot change status of a delivered order");
-        }
-       
-        
-        
-        // Validate status transition
-        validateStatusTransition(order.getStatus(), status);
-        OrderStatus oldStatus = order.getStatus();
-        // Update the status
-        order.setStatus(status);
+        changeStatus(order, status);
         Order updatedOrder = orderRepository.save(order);
-        if (status == OrderStatus.DELIVERED && oldStatus != OrderStatus.DELIVERED) {
-            try {
-                // Calculate points
-                int points = calculateLoyaltyPoints(order.getTotalAmount());
-                
-                // Create activity dto
-                LoyaltyActivityDto activityDto = new LoyaltyActivityDto();
-                activityDto.setType(LoyaltyActivityType.PURCHASE);
-                activityDto.setPoints(points);
-                activityDto.setAmount(order.getTotalAmount());
-                activityDto.setDescription("Points awarded for order #" + order.getId());
-                activityDto.setReferenceId(order.getId().toString());
-                
-                // Call customer service to award points
-                customerClient.addLoyaltyPoints(order.getCustomerId(), activityDto);
-                
-            } catch (FeignException e) {
-                // Log error but don't fail the order status update
-                System.err.println("Error awarding loyalty points: " + e.getMessage());
-            }
-        }
-        // If we're marking as delivered, we might want to update invoice as well
-        if (status == OrderStatus.DELIVERED) {
-            try {
-                invoiceService.updateInvoicePaymentStatus(
-                    updatedOrder.getInvoice().getId(), 
-                    "PAID"
-                );
-            } catch (Exception e) {
-                // Log but don't fail the order status update
-                System.out.println("Warning: Could not update invoice payment status: " + e.getMessage());
-            }
-        }
         
         OrderDto orderDto = mapToDto(updatedOrder);
         
@@ -252,6 +322,107 @@ public class OrderServiceImpl implements OrderService {
         return orderDto;
     }
     
+    // Every single-order status change, through PUT or the status endpoint, is validated and has the same side effects
+    private void changeStatus(Order order, OrderStatus status) {
+        OrderStatusTransitions.validate(order.getStatus(), status);
+        OrderStatus oldStatus = order.getStatus();
+        order.setStatus(status);
+        meterRegistry.counter("orderservice.order.status.transitions",
+                "from", oldStatus.name(), "to", status.name()).increment();
+        if (oldStatus == status) {
+            return;
+        }
+        salesRollupRecorder.orderStatusChanged(SalesOrderSnapshot.of(order), oldStatus);
+        // On DELIVERED, InvoiceEventSubscriber marks the invoice PAID once this commits
+        orderEventBus.publish(new OrderStatusChanged(order.getId(), order.getCustomerId(), oldStatus, status));
+        if (status == OrderStatus.DELIVERED) {
+            // Recorded with the status change; LoyaltyOutboxDispatcher awards the points after commit
+            loyaltyOutboxRepository.save(loyaltyEntry(order.getId(), order.getCustomerId(), order.getTotalAmount()));
+        }
+    }
+    
+    @Override
+    @Transactional
+    public BulkStatusUpdateResponse updateOrderStatuses(List<Long> orderIds, OrderStatus status) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        Map<Long, OrderStatusRow> targets = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinctIds.size()));
+            for (OrderStatusRow row : orderRepository.findStatusRowsForUpdate(chunk)) {
+                targets.put(row.id(), row);
+            }
+        }
+        
+        // Validate every transition in memory, grouping the accepted ones by their current status
+        Map<Long, StatusUpdateResult> results = new LinkedHashMap<>();
+        Map<OrderStatus, List<OrderStatusRow>> accepted = new EnumMap<>(OrderStatus.class);
+        for (Long id : distinctIds) {
+            OrderStatusRow target = targets.get(id);
+            if (target == null) {
+                results.put(id, new StatusUpdateResult(id, StatusUpdateResult.Outcome.NOT_FOUND, null,
+                        "Order not found with id: " + id));
+            } else if (!OrderStatusTransitions.isAllowed(target.status(), status)) {
+                results.put(id, new StatusUpdateResult(id, StatusUpdateResult.Outcome.REJECTED, target.status(),
+                        OrderStatusTransitions.rejection(target.status())));
+            } else if (target.status() == status) {
+                results.put(id, new StatusUpdateResult(id, StatusUpdateResult.Outcome.UNCHANGED, target.status(), null));
+            } else {
+                results.put(id, new StatusUpdateResult(id, StatusUpdateResult.Outcome.UPDATED, target.status(), null));
+                accepted.computeIfAbsent(target.status(), key -> new ArrayList<>()).add(target);
+            }
+        }
+        
+        // One guarded UPDATE per current status; the rows are locked, so each matches its whole group
+        List<OrderStatusRow> updated = new ArrayList<>();
+        for (Map.Entry<OrderStatus, List<OrderStatusRow>> group : accepted.entrySet()) {
+            List<OrderStatusRow> rows = group.getValue();
+            for (int from = 0; from < rows.size(); from += IN_LIST_CHUNK_SIZE) {
+                List<OrderStatusRow> chunk = rows.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, rows.size()));
+                int changed = orderRepository.updateStatus(chunk.stream().map(OrderStatusRow::id).toList(), group.getKey(), status);
+                if (changed != chunk.size()) {
+                    throw new IllegalStateException("Orders changed while their status was being updated; please retry");
+                }
+            }
+            updated.addAll(rows);
+            meterRegistry.counter("orderservice.order.status.transitions",
+                    "from", group.getKey().name(), "to", status.name()).increment(rows.size());
+        }
+        
+        recordStatusChanges(updated, status);
+        for (OrderStatusRow row : updated) {
+            orderEventBus.publish(new OrderStatusChanged(row.id(), row.customerId(), row.status(), status));
+        }
+        
+        if (status == OrderStatus.DELIVERED && !updated.isEmpty()) {
+            List<LoyaltyOutboxEntry> entries = new ArrayList<>(updated.size());
+            for (OrderStatusRow row : updated) {
+                entries.add(loyaltyEntry(row.id(), row.customerId(), row.totalAmount()));
+            }
+            // Recorded with the status change; LoyaltyOutboxDispatcher awards the points after commit
+            loyaltyOutboxRepository.saveAll(entries);
+        }
+        
+        List<StatusUpdateResult> ordered = new ArrayList<>(orderIds.size());
+        for (Long id : orderIds) {
+            ordered.add(results.get(id));
+        }
+        return new BulkStatusUpdateResponse(status, updated.size(), ordered);
+    }
+    
+    // Rollups are keyed by product too, so the items of the updated orders are read back as projections
+    private void recordStatusChanges(List<OrderStatusRow> updated, OrderStatus status) {
+        for (int from = 0; from < updated.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<OrderStatusRow> chunk = updated.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, updated.size()));
+            Map<Long, List<OrderItemRow>> itemsByOrder = orderItemRepository
+                    .findRowsByOrderIdIn(chunk.stream().map(OrderStatusRow::id).toList()).stream()
+                    .collect(Collectors.groupingBy(OrderItemRow::orderId));
+            for (OrderStatusRow row : chunk) {
+                SalesOrderSnapshot snapshot = SalesOrderSnapshot.of(row, itemsByOrder.getOrDefault(row.id(), List.of()));
+                salesRollupRecorder.orderStatusChanged(snapshot.withStatus(status), row.status());
+            }
+        }
+    }
+    
     @Override
     @Transactional
     public void deleteOrder(Long id) {
@@ -263,75 +434,167 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("Only pending orders can be deleted");
         }
         
-        // Restore product quantities
+        // Recorded with the delete; StockRestoreDispatcher gives the quantities back after commit
+        Map<Long, Integer> orderedQuantities = new LinkedHashMap<>();
         for (OrderItem item : order.getItems()) {
-            try {
-                ProductDto product = productClient.getProductById(item.getProductId());
-                product.setQuantity(product.getQuantity() + item.getQuantity());
-                productClient.updateProduct(product.getId(), product);
-            } catch (FeignException e) {
-                // Log warning but continue with deletion
-                System.out.println("Warning: Could not restore quantity for product: " + item.getProductId());
-            }
+            orderedQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
+        stockRestoreRepository.save(stockRestoreEntry(order.getId(), orderedQuantities));
+        orderEventBus.publish(new OrderDeleted(order.getId(), order.getCustomerId()));
         
         // Delete order (will cascade to order items and invoice)
+        salesRollupRecorder.orderDeleted(SalesOrderSnapshot.of(order));
         orderRepository.delete(order);
     }
-    private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
-        // Implement your business rules for valid status transitions
-        // For example:
-        switch (currentStatus) {
-            case PENDING:
-                if (newStatus != OrderStatus.PROCESSING && newStatus != OrderStatus.CANCELLED) {
-                    throw new IllegalStateException("From PENDING, order can only move to PROCESSING or CANCELLED");
-                }
-                break;
-            case PROCESSING:
-                if (newStatus != OrderStatus.SHIPPED && newStatus != OrderStatus.CANCELLED) {
-                    throw new IllegalStateException("From PROCESSING, order can only move to SHIPPED or CANCELLED");
-                }
-                break;
-            case SHIPPED:
-                if (newStatus != OrderStatus.DELIVERED && newStatus != OrderStatus.CANCELLED) {
-                    throw new IllegalStateException("From SHIPPED, order can only move to DELIVERED or CANCELLED");
-                }
-                break;
-            case DELIVERED:
-                if (newStatus != OrderStatus.DELIVERED) {
-                    throw new IllegalStateException("DELIVERED is a final status");
-                }
-                break;
-            case CANCELLED:
-                if (newStatus != OrderStatus.CANCELLED) {
-                    throw new IllegalStateException("CANCELLED is a final status");
-                }
-                break;
-        }
-    }
-    
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByCustomerId(Long customerId) {
-        List<Order> orders = orderRepository.findByCustomerId(customerId);
-        return orders.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return cappedList(limit -> orderRepository.findRowsByCustomerId(customerId, limit),
+                "/api/orders/customer/" + customerId + "/page");
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByStatus(OrderStatus status) {
-        List<Order> orders = orderRepository.findByStatus(status);
-        return orders.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return cappedList(limit -> orderRepository.findRowsByStatus(status, limit), "/api/orders/status/" + status + "/page");
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Order> orders = orderRepository.findByOrderDateBetween(startDate, endDate);
-        return orders.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return cappedList(limit -> orderRepository.findRowsByOrderDateBetween(startDate, endDate, limit),
+                "/api/orders/date-range/page");
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> getOrdersPage(String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, KeysetCursor.MIN_TIMESTAMP);
+        return loadPage(orderRepository.findPageIds(after.timestamp(), after.id(), limit(pageSize)), pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> getOrdersByCustomerIdPage(Long customerId, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, KeysetCursor.MIN_TIMESTAMP);
+        return loadPage(orderRepository.findPageIdsByCustomerId(
+                customerId, after.timestamp(), after.id(), limit(pageSize)), pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> getOrdersByStatusPage(OrderStatus status, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, KeysetCursor.MIN_TIMESTAMP);
+        return loadPage(orderRepository.findPageIdsByStatus(
+                status, after.timestamp(), after.id(), limit(pageSize)), pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> getOrdersByCustomerIdAndStatusPage(Long customerId, OrderStatus status,
+            LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, startDate);
+        return loadPage(orderRepository.findPageIdsByCustomerIdAndStatus(
+                customerId, status, endDate, after.timestamp(), after.id(), limit(pageSize)), pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> getOrdersByDateRangePage(LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, startDate);
+        return loadPage(orderRepository.findPageIdsByOrderDateBefore(
+                endDate, after.timestamp(), after.id(), limit(pageSize)), pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<OrderDto> consumer) {
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            orders.forEach(order -> {
+                consumer.accept(mapToDto(order));
+                // Keep the persistence context from growing with the export
+                entityManager.detach(order);
+            });
+        }
+    }
+    
+    // One row past the page size tells us whether another page exists
+    private static Pageable limit(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+    
+    // The unpaged listings read one row past the cap and refuse the request rather than return a partial list
+    private List<OrderDto> cappedList(Function<Pageable, List<OrderRow>> query, String pagedPath) {
+        int maxListSize = paginationProperties.getMaxListSize();
+        List<OrderRow> rows = query.apply(limit(maxListSize));
+        if (rows.size() > maxListSize) {
+            throw new IllegalArgumentException(
+                    "More than " + maxListSize + " orders match; use " + pagedPath + " to page through them");
+        }
+        return toDtos(rows);
+    }
+    
+    private CursorPageDto<OrderDto> loadPage(List<Long> ids, int pageSize) {
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new CursorPageDto<>(new ArrayList<>(), null);
+        }
+        
+        Map<Long, OrderRow> rowsById = orderRepository.findRowsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(OrderRow::id, Function.identity()));
+        List<OrderRow> rows = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            OrderRow row = rowsById.get(id);
+            // Skip rows deleted between the two queries
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        List<OrderDto> items = toDtos(rows);
+        
+        String nextCursor = null;
+        if (hasMore && !items.isEmpty()) {
+            OrderDto last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getOrderDate(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, nextCursor);
+    }
+    
+    // Builds DTOs from projections, loading the items of all rows with a handful of IN queries
+    private List<OrderDto> toDtos(List<OrderRow> rows) {
+        Map<Long, OrderDto> dtosById = new LinkedHashMap<>();
+        for (OrderRow row : rows) {
+            OrderDto orderDto = new OrderDto();
+            orderDto.setId(row.id());
+            orderDto.setCustomerId(row.customerId());
+            orderDto.setOrderDate(row.orderDate());
+            orderDto.setStatus(row.status());
+            orderDto.setTotalAmount(row.totalAmount());
+            dtosById.put(row.id(), orderDto);
+        }
+        
+        List<Long> orderIds = new ArrayList<>(dtosById.keySet());
+        for (int from = 0; from < orderIds.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, orderIds.size()));
+            for (OrderItemRow item : orderItemRepository.findRowsByOrderIdIn(chunk)) {
+                OrderItemDto itemDto = new OrderItemDto();
+                itemDto.setId(item.id());
+                itemDto.setProductId(item.productId());
+                itemDto.setProductName(item.productName());
+                itemDto.setQuantity(item.quantity());
+                itemDto.setPrice(item.price());
+                itemDto.setSubtotal(item.subtotal());
+                dtosById.get(item.orderId()).getItems().add(itemDto);
+            }
+        }
+        
+        return new ArrayList<>(dtosById.values());
     }
     
     private OrderDto mapToDto(Order order) {
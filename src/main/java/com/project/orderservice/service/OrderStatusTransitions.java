@@ -0,0 +1,49 @@
+package com.project.orderservice.service;
+
+import com.project.orderservice.model.OrderStatus;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Which status each status may move to, and the message given when a move is refused
+final class OrderStatusTransitions {
+    
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, String> REJECTIONS = new EnumMap<>(OrderStatus.class);
+    
+    static {
+        allow(OrderStatus.PENDING, "From PENDING, order can only move to PROCESSING or CANCELLED",
+                OrderStatus.PROCESSING, OrderStatus.CANCELLED);
+        allow(OrderStatus.PROCESSING, "From PROCESSING, order can only move to SHIPPED or CANCELLED",
+                OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+        allow(OrderStatus.SHIPPED, "From SHIPPED, order can only move to DELIVERED or CANCELLED",
+                OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+        // Final statuses only accept themselves
+        allow(OrderStatus.DELIVERED, "Cannot change status of a delivered order", OrderStatus.DELIVERED);
+        allow(OrderStatus.CANCELLED, "Cannot change status of a cancelled order", OrderStatus.CANCELLED);
+    }
+    
+    private OrderStatusTransitions() {
+    }
+    
+    static boolean isAllowed(OrderStatus currentStatus, OrderStatus newStatus) {
+        return ALLOWED.get(currentStatus).contains(newStatus);
+    }
+    
+    static String rejection(OrderStatus currentStatus) {
+        return REJECTIONS.get(currentStatus);
+    }
+    
+    static void validate(OrderStatus currentStatus, OrderStatus newStatus) {
+        if (!isAllowed(currentStatus, newStatus)) {
+            throw new IllegalStateException(rejection(currentStatus));
+        }
+    }
+    
+    private static void allow(OrderStatus from, String rejection, OrderStatus... to) {
+        ALLOWED.put(from, EnumSet.of(to[0], to));
+        REJECTIONS.put(from, rejection);
+    }
+}
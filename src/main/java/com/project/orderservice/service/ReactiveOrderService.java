@@ -0,0 +1,19 @@
+package com.project.orderservice.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public interface ReactiveOrderService {
+    Mono<OrderDto> getOrderById(Long id);
+    
+    Flux<OrderDto> getOrdersByCustomerId(Long customerId);
+    
+    Flux<OrderDto> getOrdersByStatus(OrderStatus status);
+    
+    Flux<OrderDto> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+}
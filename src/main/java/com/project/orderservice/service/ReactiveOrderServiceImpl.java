@@ -0,0 +1,85 @@
+package com.project.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import com.project.orderservice.client.CustomerBatchLoader;
+import com.project.orderservice.dto.CustomerDto;
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Order reads that hold no thread while customer-service responds.
+ * The queries are the blocking {@link OrderService} ones, run on the bounded orderDbScheduler; customer
+ * names are then looked up without blocking through the same batch lookup as the MVC API, and the request
+ * thread is released in between. A customer that cannot be looked up is shown as "Unknown Customer", as in
+ * the MVC API.
+ */
+@Service
+public class ReactiveOrderServiceImpl implements ReactiveOrderService {
+    
+    private static final String UNKNOWN_CUSTOMER = "Unknown Customer";
+    
+    private final OrderService orderService;
+    private final CustomerBatchLoader customerBatchLoader;
+    private final Scheduler dbScheduler;
+    
+    @Autowired
+    public ReactiveOrderServiceImpl(
+            OrderService orderService,
+            CustomerBatchLoader customerBatchLoader,
+            @Qualifier("orderDbScheduler") Scheduler dbScheduler) {
+        this.orderService = orderService;
+        this.customerBatchLoader = customerBatchLoader;
+        this.dbScheduler = dbScheduler;
+    }
+    
+    @Override
+    public Mono<OrderDto> getOrderById(Long id) {
+        return fromDb(() -> List.of(orderService.getOrderByIdWithoutCustomerName(id)))
+                .flatMapMany(this::withCustomerNames)
+                .single();
+    }
+    
+    @Override
+    public Flux<OrderDto> getOrdersByCustomerId(Long customerId) {
+        return fromDb(() -> orderService.getOrdersByCustomerId(customerId)).flatMapMany(this::withCustomerNames);
+    }
+    
+    @Override
+    public Flux<OrderDto> getOrdersByStatus(OrderStatus status) {
+        return fromDb(() -> orderService.getOrdersByStatus(status)).flatMapMany(this::withCustomerNames);
+    }
+    
+    @Override
+    public Flux<OrderDto> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return fromDb(() -> orderService.getOrdersByDateRange(startDate, endDate)).flatMapMany(this::withCustomerNames);
+    }
+    
+    private Mono<List<OrderDto>> fromDb(Callable<List<OrderDto>> query) {
+        return Mono.fromCallable(query).subscribeOn(dbScheduler);
+    }
+    
+    private Flux<OrderDto> withCustomerNames(List<OrderDto> orders) {
+        return customerBatchLoader.getCustomersByIdsReactive(orders.stream().map(OrderDto::getCustomerId).toList())
+                .flatMapIterable(customers -> {
+                    for (OrderDto order : orders) {
+                        CustomerDto customer = customers.get(order.getCustomerId());
+                        order.setCustomerName(customer != null ? fullName(customer) : UNKNOWN_CUSTOMER);
+                    }
+                    return orders;
+                });
+    }
+    
+    private static String fullName(CustomerDto customer) {
+        return customer.getFirstName() + " " + customer.getLastName();
+    }
+}
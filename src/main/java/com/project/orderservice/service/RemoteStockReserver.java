@@ -0,0 +1,63 @@
+package com.project.orderservice.service;
+
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.project.orderservice.client.ProductClient;
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.dto.StockReservationDto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reserves the stock of every order with one atomic product-service call, so product-service always
+ * holds the exact count. Each order waits on that call.
+ */
+@Component
+@ConditionalOnProperty(name = "order.stock.reserver", havingValue = "remote", matchIfMissing = true)
+public class RemoteStockReserver implements StockReserver {
+    
+    private static final Logger log = LoggerFactory.getLogger(RemoteStockReserver.class);
+    
+    private final ProductClient productClient;
+    
+    @Autowired
+    public RemoteStockReserver(ProductClient productClient) {
+        this.productClient = productClient;
+    }
+    
+    @Override
+    public void reserve(Map<Long, Integer> quantities, Map<Long, ProductDto> products) {
+        for (Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+            ProductDto product = products.get(requested.getKey());
+            if (product.getQuantity() < requested.getValue()) {
+                throw StockReservations.insufficientStock(product);
+            }
+        }
+        
+        String referenceId = "order-" + UUID.randomUUID();
+        try {
+            productClient.reserveStock(new StockReservationDto(referenceId, StockReservations.toAdjustments(quantities, -1)));
+        } catch (FeignException.Conflict e) {
+            throw new IllegalArgumentException(StockReservations.INSUFFICIENT_STOCK);
+        }
+        StockReservations.onRollback(() -> {
+            try {
+                productClient.reserveStock(new StockReservationDto(referenceId + "-release",
+                        StockReservations.toAdjustments(quantities, 1)));
+            } catch (FeignException e) {
+                log.error("Error releasing stock reservation {}: {}", referenceId, e.getMessage());
+            }
+        });
+    }
+    
+    @Override
+    public void restore(String referenceId, Map<Long, Integer> quantities) {
+        productClient.reserveStock(new StockReservationDto(referenceId, StockReservations.toAdjustments(quantities, 1)));
+    }
+}
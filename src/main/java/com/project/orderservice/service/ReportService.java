@@ -0,0 +1,20 @@
+package com.project.orderservice.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.project.orderservice.dto.RollupRebuildDto;
+import com.project.orderservice.dto.SalesRollupDto;
+import com.project.orderservice.dto.SalesTotalDto;
+import com.project.orderservice.model.RollupDimension;
+import com.project.orderservice.model.RollupGranularity;
+
+public interface ReportService {
+    List<SalesRollupDto> getSalesRollups(RollupDimension dimension, RollupGranularity granularity,
+                                         LocalDateTime startDate, LocalDateTime endDate, String key);
+    
+    List<SalesTotalDto> getSalesTotals(RollupDimension dimension, RollupGranularity granularity,
+                                       LocalDateTime startDate, LocalDateTime endDate);
+    
+    RollupRebuildDto rebuildSalesRollups(LocalDateTime startDate, LocalDateTime endDate);
+}
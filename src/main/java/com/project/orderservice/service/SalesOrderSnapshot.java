@@ -0,0 +1,65 @@
+package com.project.orderservice.service;
+
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderItem;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.repository.projection.OrderItemRow;
+import com.project.orderservice.repository.projection.OrderStatusRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// What an order contributes to the sales rollups, with items merged per product
+public record SalesOrderSnapshot(
+        LocalDateTime orderDate,
+        Long customerId,
+        OrderStatus status,
+        double totalAmount,
+        double discountAmount,
+        List<ProductLine> lines) {
+    
+    public record ProductLine(Long productId, long quantity, double subtotal) {
+    }
+    
+    public static SalesOrderSnapshot of(Order order) {
+        Map<Long, ProductLine> lines = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            merge(lines, item.getProductId(), item.getQuantity(), item.getSubtotal());
+        }
+        return new SalesOrderSnapshot(order.getOrderDate(), order.getCustomerId(), order.getStatus(),
+                valueOf(order.getTotalAmount()), valueOf(order.getDiscountAmount()), new ArrayList<>(lines.values()));
+    }
+    
+    public static SalesOrderSnapshot of(OrderStatusRow order, List<OrderItemRow> items) {
+        Map<Long, ProductLine> lines = new LinkedHashMap<>();
+        for (OrderItemRow item : items) {
+            merge(lines, item.productId(), item.quantity(), item.subtotal());
+        }
+        return new SalesOrderSnapshot(order.orderDate(), order.customerId(), order.status(),
+                valueOf(order.totalAmount()), valueOf(order.discountAmount()), new ArrayList<>(lines.values()));
+    }
+    
+    public SalesOrderSnapshot withStatus(OrderStatus newStatus) {
+        return new SalesOrderSnapshot(orderDate, customerId, newStatus, totalAmount, discountAmount, lines);
+    }
+    
+    public long units() {
+        long units = 0;
+        for (ProductLine line : lines) {
+            units += line.quantity();
+        }
+        return units;
+    }
+    
+    private static void merge(Map<Long, ProductLine> lines, Long productId, Integer quantity, Double subtotal) {
+        ProductLine line = new ProductLine(productId, quantity == null ? 0 : quantity, valueOf(subtotal));
+        lines.merge(productId, line, (a, b) -> new ProductLine(productId, a.quantity() + b.quantity(), a.subtotal() + b.subtotal()));
+    }
+    
+    private static double valueOf(Double amount) {
+        return amount == null ? 0.0 : amount;
+    }
+}
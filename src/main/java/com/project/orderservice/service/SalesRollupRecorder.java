@@ -0,0 +1,151 @@
+package com.project.orderservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.model.RollupDimension;
+import com.project.orderservice.model.RollupGranularity;
+import com.project.orderservice.model.SalesRollupDelta;
+import com.project.orderservice.model.SalesRollupKey;
+import com.project.orderservice.repository.SalesRollupRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the sales rollups current as orders change.
+ * Deltas collected during a transaction are merged into an in-memory buffer only once it commits, and
+ * the buffer is written out periodically as one batch of upserts. Busy buckets (today, PENDING, a
+ * best-selling product) are therefore updated once per flush instead of once per order, and never
+ * inside an order transaction. Deltas still buffered when the process dies are lost; the rollups
+ * for the affected days can be rebuilt from the orders table (see {@link ReportService}).
+ */
+@Component
+public class SalesRollupRecorder {
+    
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupRecorder.class);
+    
+    private final SalesRollupRepository salesRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<SalesRollupKey, SalesRollupDelta> pending = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public SalesRollupRecorder(SalesRollupRepository salesRollupRepository, PlatformTransactionManager transactionManager) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Flushes are independent of whatever transaction happens to call them
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    public void orderCreated(SalesOrderSnapshot order) {
+        accumulate(transactionDeltas(), order, 1);
+    }
+    
+    public void orderDeleted(SalesOrderSnapshot order) {
+        accumulate(transactionDeltas(), order, -1);
+    }
+    
+    // The snapshot carries the new status; the order's contribution moves out of the previous one
+    public void orderStatusChanged(SalesOrderSnapshot order, OrderStatus previousStatus) {
+        if (order.status() == previousStatus) {
+            return;
+        }
+        Map<SalesRollupKey, SalesRollupDelta> deltas = transactionDeltas();
+        accumulate(deltas, order.withStatus(previousStatus), -1);
+        accumulate(deltas, order, 1);
+    }
+    
+    @Scheduled(fixedDelayString = "${order.sales-rollups.flush-interval:PT5S}")
+    @PreDestroy
+    public void flush() {
+        try {
+            flushOrThrow();
+        } catch (RuntimeException e) {
+            log.warn("Could not flush sales rollup deltas, will retry: {}", e.getMessage());
+        }
+    }
+    
+    // Like flush, but a failed write is thrown; its deltas stay pending for the next flush
+    public void flushOrThrow() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Removing key by key never loses a delta merged concurrently; it is simply left for the next flush
+        Map<SalesRollupKey, SalesRollupDelta> batch = new HashMap<>();
+        for (SalesRollupKey key : pending.keySet()) {
+            SalesRollupDelta delta = pending.remove(key);
+            if (delta != null) {
+                batch.put(key, delta);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> salesRollupRepository.increment(batch));
+        } catch (RuntimeException e) {
+            batch.forEach((key, delta) -> pending.merge(key, delta, SalesRollupDelta::plus));
+            throw e;
+        }
+    }
+    
+    /**
+     * Adds (sign 1) or removes (sign -1) an order's contribution to every rollup it belongs to.
+     * Cancelled orders only count towards the STATUS dimension.
+     */
+    static void accumulate(Map<SalesRollupKey, SalesRollupDelta> into, SalesOrderSnapshot order, int sign) {
+        SalesRollupDelta orderDelta = new SalesRollupDelta(sign, sign * order.units(),
+                sign * order.totalAmount(), sign * order.discountAmount());
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime bucketStart = granularity.bucketStart(order.orderDate());
+            add(into, new SalesRollupKey(granularity, bucketStart, RollupDimension.STATUS, order.status().name()), orderDelta);
+            if (order.status() == OrderStatus.CANCELLED) {
+                continue;
+            }
+            add(into, new SalesRollupKey(granularity, bucketStart, RollupDimension.CUSTOMER,
+                    String.valueOf(order.customerId())), orderDelta);
+            for (SalesOrderSnapshot.ProductLine line : order.lines()) {
+                add(into, new SalesRollupKey(granularity, bucketStart, RollupDimension.PRODUCT, String.valueOf(line.productId())),
+                        new SalesRollupDelta(sign, sign * line.quantity(), sign * line.subtotal(), 0.0));
+            }
+        }
+    }
+    
+    private static void add(Map<SalesRollupKey, SalesRollupDelta> into, SalesRollupKey key, SalesRollupDelta delta) {
+        into.merge(key, delta, SalesRollupDelta::plus);
+    }
+    
+    // One buffer per transaction, handed to the shared buffer on commit and dropped on rollback
+    @SuppressWarnings("unchecked")
+    private Map<SalesRollupKey, SalesRollupDelta> transactionDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return pending;
+        }
+        Map<SalesRollupKey, SalesRollupDelta> deltas =
+                (Map<SalesRollupKey, SalesRollupDelta>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            Map<SalesRollupKey, SalesRollupDelta> transactionDeltas = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, transactionDeltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SalesRollupRecorder.this);
+                    if (status == STATUS_COMMITTED) {
+                        transactionDeltas.forEach((key, delta) -> pending.merge(key, delta, SalesRollupDelta::plus));
+                    }
+                }
+            });
+            deltas = transactionDeltas;
+        }
+        return deltas;
+    }
+}
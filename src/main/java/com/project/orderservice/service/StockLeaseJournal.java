@@ -0,0 +1,148 @@
+package com.project.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.model.StockLeaseJournalEntry;
+import com.project.orderservice.repository.StockLeaseJournalRepository;
+import com.project.orderservice.repository.projection.LeaseBalance;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists the changes to this node's stock leases, so units leased from product-service are not lost
+ * when the node dies. Units taken by an order are recorded in the order's own transaction and vanish
+ * with it on rollback; gains and returns are recorded in their own short transactions. Every entry is
+ * written so that a crash between the journal and product-service can only under-count the leases:
+ * the units are then stranded as sold, never handed out twice.
+ * The node id must be unique per instance and stable across its restarts.
+ */
+@Component
+@ConditionalOnProperty(name = "order.stock.reserver", havingValue = "ledger")
+public class StockLeaseJournal {
+
+    private final StockLeaseJournalRepository journalRepository;
+    private final TransactionTemplate newTransaction;
+    private final String nodeId;
+
+    @Autowired
+    public StockLeaseJournal(
+            StockLeaseJournalRepository journalRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.stock.ledger.node-id:}") String nodeId) {
+        this.journalRepository = journalRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.isBlank() ? hostName() : nodeId;
+    }
+
+    // Units held per product at the last run of this node
+    public Map<Long, Long> balances() {
+        Map<Long, Long> balances = new LinkedHashMap<>();
+        for (LeaseBalance balance : journalRepository.findBalances(nodeId)) {
+            if (balance.units() != 0) {
+                balances.put(balance.productId(), balance.units());
+            }
+        }
+        return balances;
+    }
+
+    // Joins the order's transaction, so a rollback takes the entries back along with the order
+    public void recordTaken(Map<Long, Integer> quantities) {
+        if (!quantities.isEmpty()) {
+            journalRepository.saveAll(entries(quantities, -1, null));
+        }
+    }
+
+    public void recordAcquired(Map<Long, Integer> quantities) {
+        if (!quantities.isEmpty()) {
+            newTransaction.executeWithoutResult(status -> journalRepository.saveAll(entries(quantities, 1, null)));
+        }
+    }
+
+    public void recordReturned(Map<Long, Integer> quantities) {
+        if (!quantities.isEmpty()) {
+            newTransaction.executeWithoutResult(status -> journalRepository.saveAll(entries(quantities, -1, null)));
+        }
+    }
+
+    /**
+     * Records the units of a restore that go back into the leases.
+     * @return false if this referenceId was already restored, in which case nothing is recorded
+     */
+    public boolean recordRestored(String referenceId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(newTransaction.execute(status -> {
+                if (journalRepository.existsByReferenceId(referenceId)) {
+                    return false;
+                }
+                journalRepository.saveAll(entries(quantities, 1, referenceId));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry of the same restore committed first
+            return false;
+        }
+    }
+
+    // Folds the entries written since the last compaction into one per product
+    public void compact() {
+        newTransaction.executeWithoutResult(status -> {
+            List<StockLeaseJournalEntry> entries = journalRepository.findCompactable(nodeId);
+            if (entries.size() <= 1) {
+                return;
+            }
+            Map<Long, Integer> totals = new LinkedHashMap<>();
+            List<StockLeaseJournalEntry> folded = new ArrayList<>();
+            for (StockLeaseJournalEntry entry : entries) {
+                totals.merge(entry.getProductId(), entry.getUnits(), Integer::sum);
+                if (entry.getReferenceId() == null) {
+                    folded.add(entry);
+                } else {
+                    entry.setUnits(0);
+                }
+            }
+            journalRepository.deleteAllInBatch(folded);
+            totals.values().removeIf(units -> units == 0);
+            journalRepository.saveAll(entries(totals, 1, null));
+        });
+    }
+
+    private List<StockLeaseJournalEntry> entries(Map<Long, Integer> quantities, int sign, String referenceId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockLeaseJournalEntry> entries = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, units) -> {
+            StockLeaseJournalEntry entry = new StockLeaseJournalEntry();
+            entry.setNodeId(nodeId);
+            entry.setProductId(productId);
+            entry.setUnits(sign * units);
+            entry.setReferenceId(referenceId);
+            entry.setCreatedAt(now);
+            entries.add(entry);
+        });
+        return entries;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Set order.stock.ledger.node-id: the host name is unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.orderservice.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.dto.StockAdjustmentDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Helpers shared by the StockReserver implementations
+final class StockReservations {
+    
+    static final String INSUFFICIENT_STOCK = "Insufficient stock for one or more products in the order";
+    
+    private StockReservations() {
+    }
+    
+    static List<StockAdjustmentDto> toAdjustments(Map<Long, Integer> quantities, int sign) {
+        List<StockAdjustmentDto> adjustments = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> adjustments.add(new StockAdjustmentDto(productId, sign * quantity)));
+        return adjustments;
+    }
+    
+    static IllegalArgumentException insufficientStock(ProductDto product) {
+        return new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+    }
+    
+    // Stock is reserved before the order is persisted, so it has to be given back if the order never commits
+    static void onRollback(Runnable release) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    release.run();
+                }
+            }
+        });
+    }
+}
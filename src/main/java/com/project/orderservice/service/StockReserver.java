@@ -0,0 +1,25 @@
+package com.project.orderservice.service;
+
+import com.project.orderservice.dto.ProductDto;
+
+import java.util.Map;
+
+/**
+ * Takes stock for new orders and gives back the stock of deleted ones. Selected with
+ * order.stock.reserver: remote (default) or ledger.
+ */
+public interface StockReserver {
+    
+    /**
+     * Reserves all the quantities or none of them, throwing IllegalArgumentException when stock is short.
+     * {@code products} are the freshly loaded products being ordered. When called inside a transaction,
+     * the stock is given back if that transaction rolls back.
+     */
+    void reserve(Map<Long, Integer> quantities, Map<Long, ProductDto> products);
+    
+    /**
+     * Gives back the stock of a deleted order; throws FeignException when product-service rejects it.
+     * A retry with the same {@code referenceId} is answered with 409 if product-service already applied it.
+     */
+    void restore(String referenceId, Map<Long, Integer> quantities);
+}
@@ -0,0 +1,159 @@
+package com.project.orderservice.service;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.exception.ServiceUnavailableException;
+import com.project.orderservice.model.StockRestoreEntry;
+import com.project.orderservice.model.StockRestoreStatus;
+import com.project.orderservice.repository.StockRestoreRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives the stock of deleted orders back through the StockReserver.
+ * Each round claims a batch of due rows in a short transaction (leasing them so other instances skip
+ * them), restores them with no transaction open, then records the outcomes in a second short
+ * transaction: restored rows are deleted, failed ones retried with exponential backoff. The entry's
+ * referenceId lets product-service recognise a retry of a restore it has already applied.
+ */
+@Component
+public class StockRestoreDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockRestoreDispatcher.class);
+    
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    private final StockRestoreRepository restoreRepository;
+    private final StockReserver stockReserver;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    
+    @Autowired
+    public StockRestoreDispatcher(
+            StockRestoreRepository restoreRepository,
+            StockReserver stockReserver,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${order.stock-restore.batch-size:100}") int batchSize,
+            @Value("${order.stock-restore.lease:1m}") Duration lease,
+            @Value("${order.stock-restore.initial-backoff:5s}") Duration initialBackoff,
+            @Value("${order.stock-restore.max-backoff:10m}") Duration maxBackoff) {
+        this.restoreRepository = restoreRepository;
+        this.stockReserver = stockReserver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+    
+    // StockRestoreSubscriber calls this right after a delete commits; the schedule picks up the rest
+    @Scheduled(fixedDelayString = "${order.stock-restore.poll-interval:PT10S}",
+            initialDelayString = "${order.stock-restore.poll-interval:PT10S}")
+    public void dispatchPending() {
+        // Keep draining full batches; stop when the backlog is empty or product-service is unavailable
+        while (dispatchBatch()) {
+        }
+    }
+    
+    /**
+     * Claims and restores one batch of due entries.
+     * @return whether a full batch went through, i.e. more entries may be due right now
+     */
+    public boolean dispatchBatch() {
+        List<StockRestoreEntry> batch = claim();
+        if (batch.isEmpty()) {
+            return false;
+        }
+        
+        boolean interrupted = false;
+        List<Long> restored = new ArrayList<>();
+        List<StockRestoreEntry> changed = new ArrayList<>();
+        for (StockRestoreEntry entry : batch) {
+            try {
+                stockReserver.restore(entry.getReferenceId(), entry.getQuantities());
+                restored.add(entry.getId());
+            } catch (FeignException.Conflict e) {
+                // A restore only adds stock, so product-service already holds a reservation with this referenceId
+                restored.add(entry.getId());
+            } catch (FeignException.BadRequest | FeignException.NotFound e) {
+                log.error("Stock restore {} of order {} rejected by product-service: {}",
+                        entry.getReferenceId(), entry.getOrderId(), e.getMessage());
+                entry.setStatus(StockRestoreStatus.FAILED);
+                entry.setLastError(truncate(e.getMessage()));
+                changed.add(entry);
+                record("failed");
+            } catch (ServiceUnavailableException e) {
+                // Breaker open or bulkhead full: the rest of the batch stays leased and is retried later
+                retryLater(entry, e);
+                changed.add(entry);
+                interrupted = true;
+                break;
+            } catch (RuntimeException e) {
+                retryLater(entry, e);
+                changed.add(entry);
+            }
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            restoreRepository.deleteAllById(restored);
+            restoreRepository.saveAll(changed);
+        });
+        meterRegistry.counter("orderservice.stock.restore.deliveries", "outcome", "restored").increment(restored.size());
+        return !interrupted && batch.size() == batchSize;
+    }
+    
+    private List<StockRestoreEntry> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            List<StockRestoreEntry> due = restoreRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            // Leased until the outcome is recorded; if this instance dies the entries become due again
+            for (StockRestoreEntry entry : due) {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+    }
+    
+    private void retryLater(StockRestoreEntry entry, RuntimeException e) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(entry.getAttempts() - 1, 20));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        entry.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        entry.setLastError(truncate(e.getMessage()));
+        log.warn("Stock restore {} attempt {} failed, retrying in {}: {}",
+                entry.getReferenceId(), entry.getAttempts(), backoff, e.getMessage());
+        record("retry");
+    }
+    
+    private void record(String outcome) {
+        meterRegistry.counter("orderservice.stock.restore.deliveries", "outcome", outcome).increment();
+    }
+    
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
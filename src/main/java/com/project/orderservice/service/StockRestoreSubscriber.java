@@ -0,0 +1,38 @@
+package com.project.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.project.orderservice.event.OrderDeleted;
+import com.project.orderservice.event.OrderEvent;
+import com.project.orderservice.event.OrderEventSubscriber;
+
+import java.util.List;
+
+// Restores the stock of deleted orders as soon as the delete commits instead of at the next poll.
+// The rows themselves are written by the delete, so a dropped event only delays the restore.
+@Component
+public class StockRestoreSubscriber implements OrderEventSubscriber {
+    
+    private final StockRestoreDispatcher stockRestoreDispatcher;
+    
+    @Autowired
+    public StockRestoreSubscriber(StockRestoreDispatcher stockRestoreDispatcher) {
+        this.stockRestoreDispatcher = stockRestoreDispatcher;
+    }
+    
+    @Override
+    public String name() {
+        return "stock-restore";
+    }
+    
+    @Override
+    public boolean accepts(OrderEvent event) {
+        return event instanceof OrderDeleted;
+    }
+    
+    @Override
+    public void onEvents(List<OrderEvent> events) {
+        stockRestoreDispatcher.dispatchPending();
+    }
+}
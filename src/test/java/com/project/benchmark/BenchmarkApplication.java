@@ -0,0 +1,71 @@
+package com.project.benchmark;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.project.orderservice.OrderServiceApplication;
+import com.project.orderservice.client.CustomerClient;
+import com.project.orderservice.client.InMemoryProductClient;
+import com.project.orderservice.client.ProductClient;
+import com.project.orderservice.config.FeignConfig;
+import com.project.orderservice.dto.CustomerDto;
+import com.project.orderservice.dto.LoyaltyActivityDto;
+
+import java.util.List;
+
+/**
+ * The application without Feign: product-service and customer-service are served by in-process stubs.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.project.orderservice.model")
+@EnableJpaRepositories("com.project.orderservice.repository")
+@ComponentScan(basePackages = "com.project.orderservice", excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = {OrderServiceApplication.class, FeignConfig.class}))
+public class BenchmarkApplication {
+    
+    static final Long CUSTOMER_ID = 7L;
+    
+    private static final int PRODUCT_COUNT = 100;
+    
+    @Bean
+    @Qualifier("productFeignClient")
+    ProductClient productFeignClient() {
+        InMemoryProductClient productClient = new InMemoryProductClient();
+        for (long productId = 1; productId <= PRODUCT_COUNT; productId++) {
+            productClient.addProduct(productId, "Product " + productId, 9.99, Integer.MAX_VALUE);
+        }
+        return productClient;
+    }
+    
+    @Bean
+    @Qualifier("customerFeignClient")
+    CustomerClient customerFeignClient() {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(CUSTOMER_ID);
+        customer.setFirstName("Ada");
+        customer.setLastName("Lovelace");
+        return new CustomerClient() {
+            @Override
+            public CustomerDto getCustomerById(Long id) {
+                return customer;
+            }
+            
+            @Override
+            public List<CustomerDto> getCustomersByIds(List<Long> ids) {
+                return ids.contains(CUSTOMER_ID) ? List.of(customer) : List.of();
+            }
+            
+            @Override
+            public CustomerDto addLoyaltyPoints(Long customerId, LoyaltyActivityDto activityDto) {
+                return customer;
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.dto.OrderItemDto;
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderItem;
+import com.project.orderservice.service.OrderService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end createOrder through the Spring context against in-memory H2, with product-service and
+ * customer-service replaced by in-process stubs. Includes transaction, persistence and invoice generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateOrderBenchmark {
+    
+    @Param({"1", "10", "40"})
+    public int itemCount;
+    
+    // Orders present before measurement so the listing benchmarks read a full page
+    private static final int SEEDED_ORDERS = 200;
+    
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private EntityManagerFactory entityManagerFactory;
+    private OrderDto request;
+    
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        
+        List<OrderItemDto> items = new ArrayList<>(itemCount);
+        for (long productId = 1; productId <= itemCount; productId++) {
+            OrderItemDto item = new OrderItemDto();
+            item.setProductId(productId);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request = new OrderDto();
+        request.setCustomerId(BenchmarkApplication.CUSTOMER_ID);
+        request.setItems(items);
+        
+        for (int i = 0; i < SEEDED_ORDERS; i++) {
+            orderService.createOrder(request);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public OrderDto createOrder() {
+        return orderService.createOrder(request);
+    }
+    
+    @Benchmark
+    public List<OrderDto> listOrdersByCustomer() {
+        return orderService.getOrdersByCustomerIdPage(BenchmarkApplication.CUSTOMER_ID, null, 50).getItems();
+    }
+    
+    // Projection-based listing of every order of the customer, as served by GET /api/orders/customer/{id}
+    @Benchmark
+    public List<OrderDto> listAllOrdersByCustomerFromProjections() {
+        return orderService.getOrdersByCustomerId(BenchmarkApplication.CUSTOMER_ID);
+    }
+    
+    // Baseline for the projection listing: the same rows hydrated as entities with their items, then mapped to DTOs
+    @Benchmark
+    public List<OrderDto> listAllOrdersByCustomerFromEntities() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Order> orders = entityManager.createQuery(
+                            "select distinct o from Order o left join fetch o.items where o.customerId = :customerId",
+                            Order.class)
+                    .setParameter("customerId", BenchmarkApplication.CUSTOMER_ID)
+                    .getResultList();
+            List<OrderDto> dtos = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                dtos.add(mapToDto(order));
+            }
+            return dtos;
+        } finally {
+            entityManager.close();
+        }
+    }
+    
+    // Mirrors OrderServiceImpl's entity mapping, which is private to the service
+    private static OrderDto mapToDto(Order order) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setId(order.getId());
+        orderDto.setCustomerId(order.getCustomerId());
+        orderDto.setOrderDate(order.getOrderDate());
+        orderDto.setStatus(order.getStatus());
+        orderDto.setTotalAmount(order.getTotalAmount());
+        
+        List<OrderItemDto> itemDtos = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            OrderItemDto itemDto = new OrderItemDto();
+            itemDto.setId(item.getId());
+            itemDto.setProductId(item.getProductId());
+            itemDto.setProductName(item.getProductName());
+            itemDto.setQuantity(item.getQuantity());
+            itemDto.setPrice(item.getPrice());
+            itemDto.setSubtotal(item.getSubtotal());
+            itemDtos.add(itemDto);
+        }
+        orderDto.setItems(itemDtos);
+        return orderDto;
+    }
+}
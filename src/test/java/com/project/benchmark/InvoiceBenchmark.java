@@ -0,0 +1,77 @@
+package com.project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.orderservice.config.PaginationProperties;
+import com.project.orderservice.model.Invoice;
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderItem;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.repository.InvoiceRepository;
+import com.project.orderservice.service.InvoiceServiceImpl;
+import com.project.orderservice.service.OrderIdInvoiceNumberAllocator;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice generation (number formatting, tax and totals) and order total calculation, with persistence stubbed out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceBenchmark {
+    
+    @Param({"1", "10", "100"})
+    public int itemCount;
+    
+    private InvoiceServiceImpl invoiceService;
+    private Order order;
+    
+    @Setup
+    public void setUp() {
+        order = new Order();
+        order.setId(123456L);
+        order.setCustomerId(7L);
+        order.setOrderDate(LocalDateTime.of(2024, 3, 1, 10, 0));
+        order.setStatus(OrderStatus.PENDING);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId((long) i);
+            item.setQuantity(3);
+            item.setPrice(4.5);
+            item.calculateSubtotal();
+            order.addItem(item);
+        }
+        order.setTotalAmount(order.calculateTotalAmount());
+        
+        InvoiceRepository invoiceRepository = Stubs.of(InvoiceRepository.class, Map.of(
+                "save", args -> args[0]));
+        invoiceService = new InvoiceServiceImpl(invoiceRepository, null, null, null,
+                new OrderIdInvoiceNumberAllocator(), new PaginationProperties());
+    }
+    
+    @Benchmark
+    public Invoice generateInvoice() {
+        return invoiceService.generateInvoice(order);
+    }
+    
+    @Benchmark
+    public double calculateOrderTotal() {
+        return order.calculateTotalAmount();
+    }
+}
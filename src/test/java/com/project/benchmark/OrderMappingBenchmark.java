@@ -0,0 +1,118 @@
+package com.project.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.orderservice.client.CustomerClient;
+import com.project.orderservice.client.ProductClient;
+import com.project.orderservice.config.PaginationProperties;
+import com.project.orderservice.dto.CustomerDto;
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderItem;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.repository.LoyaltyOutboxRepository;
+import com.project.orderservice.repository.OrderItemRepository;
+import com.project.orderservice.repository.OrderRepository;
+import com.project.orderservice.repository.StockRestoreRepository;
+import com.project.orderservice.repository.projection.OrderItemRow;
+import com.project.orderservice.repository.projection.OrderRow;
+import com.project.orderservice.service.OrderServiceImpl;
+import com.project.orderservice.service.RemoteStockReserver;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning orders into DTOs, from a managed entity (single-order path) and from projections (list path).
+ * Repositories and clients are stubbed so only mapping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+    
+    private static final int ORDERS_PER_LIST = 50;
+    
+    @Param({"1", "10", "100"})
+    public int itemCount;
+    
+    private OrderServiceImpl orderService;
+    
+    @Setup
+    public void setUp() {
+        LocalDateTime orderDate = LocalDateTime.of(2024, 3, 1, 10, 0);
+        
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(7L);
+        order.setOrderDate(orderDate);
+        order.setStatus(OrderStatus.PENDING);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setId((long) i);
+            item.setProductId((long) i);
+            item.setProductName("Product " + i);
+            item.setQuantity(2);
+            item.setPrice(9.99);
+            item.calculateSubtotal();
+            order.addItem(item);
+        }
+        order.setTotalAmount(order.calculateTotalAmount());
+        
+        List<OrderRow> rows = new ArrayList<>(ORDERS_PER_LIST);
+        List<OrderItemRow> itemRows = new ArrayList<>(ORDERS_PER_LIST * itemCount);
+        for (long orderId = 1; orderId <= ORDERS_PER_LIST; orderId++) {
+            rows.add(new OrderRow(orderId, 7L, orderDate, OrderStatus.PENDING, order.getTotalAmount()));
+            for (int i = 0; i < itemCount; i++) {
+                itemRows.add(new OrderItemRow(orderId, orderId * 1000 + i, (long) i, "Product " + i, 2, 9.99, 19.98));
+            }
+        }
+        
+        CustomerDto customer = new CustomerDto();
+        customer.setId(7L);
+        customer.setFirstName("Ada");
+        customer.setLastName("Lovelace");
+        
+        OrderRepository orderRepository = Stubs.of(OrderRepository.class, Map.of(
+                "findWithItemsById", args -> Optional.of(order),
+                "findRowsByCustomerId", args -> rows));
+        OrderItemRepository orderItemRepository = Stubs.of(OrderItemRepository.class, Map.of(
+                "findRowsByOrderIdIn", args -> itemRows));
+        CustomerClient customerClient = Stubs.of(CustomerClient.class, Map.of(
+                "getCustomerById", args -> customer));
+        
+        orderService = new OrderServiceImpl(orderRepository, orderItemRepository,
+                new RemoteStockReserver(Stubs.of(ProductClient.class, Map.of())), null, customerClient,
+                null, Stubs.of(LoyaltyOutboxRepository.class, Map.of()),
+                Stubs.of(StockRestoreRepository.class, Map.of()), null,
+                new PaginationProperties(), new SimpleMeterRegistry());
+    }
+    
+    @Benchmark
+    public OrderDto mapSingleOrderFromEntity() {
+        return orderService.getOrderById(1L);
+    }
+    
+    @Benchmark
+    public List<OrderDto> mapOrderListFromProjections() {
+        return orderService.getOrdersByCustomerId(7L);
+    }
+}
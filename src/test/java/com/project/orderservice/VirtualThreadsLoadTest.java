@@ -0,0 +1,138 @@
+package com.project.orderservice;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.repository.OrderRepository;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives concurrent GET /api/orders/{id} requests whose customer-name enrichment waits on a slow
+ * customer-service, once on a small platform-thread pool and once in the virtual-threads profile.
+ * Run with: mvn -P load-test test
+ */
+@Tag("load")
+class VirtualThreadsLoadTest {
+
+    private static final int CONCURRENT_REQUESTS = 100;
+    private static final int WARM_UP_REQUESTS = 20;
+    // Downstream latency is kept well above per-request CPU cost so small CI machines still show the difference
+    private static final long CUSTOMER_SERVICE_LATENCY_MS = 1000;
+    private static final int PLATFORM_THREADS = 10;
+
+    private HttpServer customerService;
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @BeforeEach
+    void startCustomerService() throws Exception {
+        customerService = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        customerService.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        customerService.createContext("/api/customers/", exchange -> {
+            String id = exchange.getRequestURI().getPath().substring("/api/customers/".length());
+            try {
+                Thread.sleep(CUSTOMER_SERVICE_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"id\":" + id + ",\"firstName\":\"Customer\",\"lastName\":\"" + id + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        customerService.start();
+    }
+
+    @AfterEach
+    void stopCustomerService() {
+        customerService.stop(0);
+    }
+
+    @Test
+    void virtualThreadsServeSlowDownstreamCallsWithoutExhaustingTheRequestPool() throws Exception {
+        Duration platform = measure("platform", false);
+        Duration virtual = measure("virtual", true);
+
+        System.out.printf("%d concurrent order reads: platform threads (max %d) %d ms, virtual threads %d ms%n",
+                CONCURRENT_REQUESTS, PLATFORM_THREADS, platform.toMillis(), virtual.toMillis());
+        assertTrue(virtual.toMillis() * 2 < platform.toMillis(),
+                "virtual threads took " + virtual.toMillis() + " ms vs " + platform.toMillis() + " ms on platform threads");
+    }
+
+    private Duration measure(String name, boolean virtualThreads) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.cloud.openfeign.client.config.customer-service.url=http://localhost:" + customerService.getAddress().getPort(),
+                "--resilience4j.bulkhead.instances.customer-service.max-concurrent-calls=" + CONCURRENT_REQUESTS * 2,
+                "--logging.level.com.project.orderservice=warn"));
+        if (virtualThreads) {
+            args.add("--spring.profiles.active=virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .run(args.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<Long> orderIds = seedOrders(context.getBean(OrderRepository.class), WARM_UP_REQUESTS + CONCURRENT_REQUESTS);
+
+            getAll(port, orderIds.subList(0, WARM_UP_REQUESTS));
+            long start = System.nanoTime();
+            getAll(port, orderIds.subList(WARM_UP_REQUESTS, orderIds.size()));
+            return Duration.ofNanos(System.nanoTime() - start);
+        }
+    }
+
+    private List<Long> seedOrders(OrderRepository orderRepository, int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            // One customer per order so the customer cache cannot absorb the downstream calls
+            order.setCustomerId((long) i + 1);
+            order.setOrderDate(LocalDateTime.now());
+            order.setStatus(OrderStatus.PENDING);
+            order.setTotalAmount(10.0);
+            orders.add(order);
+        }
+        return orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+    }
+
+    private void getAll(int port, List<Long> orderIds) {
+        List<CompletableFuture<HttpResponse<String>>> responses = orderIds.stream()
+                .map(id -> http.sendAsync(
+                        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/" + id)).build(),
+                        HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            HttpResponse<String> result = response.join();
+            assertEquals(200, result.statusCode(), result.body());
+            assertTrue(!result.body().contains("Unknown Customer"), result.body());
+        }
+    }
+}
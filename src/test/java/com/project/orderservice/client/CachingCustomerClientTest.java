@@ -0,0 +1,195 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import com.project.orderservice.dto.CustomerDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingCustomerClientTest {
+    
+    private CustomerClient delegate;
+    private ReactiveCustomerClient reactiveDelegate;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingCustomerClient client;
+    
+    @BeforeEach
+    void setUp() {
+        delegate = mock(CustomerClient.class);
+        reactiveDelegate = mock(ReactiveCustomerClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CachingCustomerClient(delegate, reactiveDelegate, meterRegistry, CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                100, Duration.ofMinutes(5), Duration.ofHours(24), true, Duration.ofSeconds(30), Duration.ofSeconds(1));
+    }
+    
+    @Test
+    void repeatedLookupsHitTheCache() {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(1L);
+        when(delegate.getCustomerById(1L)).thenReturn(customer);
+        
+        assertSame(customer, client.getCustomerById(1L));
+        assertSame(customer, client.getCustomerById(1L));
+        
+        verify(delegate, times(1)).getCustomerById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "customers").tag("result", "hit").functionCounter().count());
+    }
+    
+    @Test
+    void unknownCustomersAreNegativelyCached() {
+        FeignException.NotFound notFound = new FeignException.NotFound("missing",
+                Request.create(Request.HttpMethod.GET, "/api/customers/2", Map.of(), null, StandardCharsets.UTF_8, null),
+                null, null);
+        when(delegate.getCustomerById(2L)).thenThrow(notFound);
+        
+        assertSame(notFound, assertThrows(FeignException.NotFound.class, () -> client.getCustomerById(2L)));
+        // Each hit throws its own instance, never the cached one
+        FeignException cached = assertThrows(FeignException.NotFound.class, () -> client.getCustomerById(2L));
+        assertNotSame(notFound, cached);
+        assertNotSame(cached, assertThrows(FeignException.NotFound.class, () -> client.getCustomerById(2L)));
+        
+        verify(delegate, times(1)).getCustomerById(2L);
+    }
+    
+    @Test
+    void customersMissingOnTheReactivePathAreNegativelyCachedForBothPaths() {
+        when(reactiveDelegate.getCustomerById(2L)).thenReturn(Mono.error(WebClientResponseException.create(
+                404, "Not Found", HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8)));
+        
+        assertThrows(WebClientResponseException.NotFound.class, () -> client.getCustomerByIdReactive(2L).block());
+        assertThrows(FeignException.NotFound.class, () -> client.getCustomerByIdReactive(2L).block());
+        assertThrows(FeignException.NotFound.class, () -> client.getCustomerById(2L));
+        
+        verify(reactiveDelegate, times(1)).getCustomerById(2L);
+        verify(delegate, never()).getCustomerById(2L);
+    }
+    
+    @Test
+    void lastKnownCustomerIsServedWhenCustomerServiceFails() {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(3L);
+        FeignException.ServiceUnavailable unavailable = new FeignException.ServiceUnavailable("down",
+                Request.create(Request.HttpMethod.GET, "/api/customers/3", Map.of(), null, StandardCharsets.UTF_8, null),
+                null, null);
+        client = new CachingCustomerClient(delegate, reactiveDelegate, meterRegistry, CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                100, Duration.ofNanos(1), Duration.ofHours(24), true, Duration.ofSeconds(30), Duration.ofSeconds(1));
+        when(delegate.getCustomerById(3L)).thenReturn(customer).thenThrow(unavailable);
+        
+        assertSame(customer, client.getCustomerById(3L));
+        assertSame(customer, client.getCustomerById(3L));
+        
+        verify(delegate, times(2)).getCustomerById(3L);
+    }
+    
+    @Test
+    void batchLookupsOnlyAskForTheMisses() {
+        CustomerDto cached = new CustomerDto();
+        cached.setId(1L);
+        CustomerDto fetched = new CustomerDto();
+        fetched.setId(5L);
+        when(delegate.getCustomerById(1L)).thenReturn(cached);
+        when(delegate.getCustomersByIds(List.of(5L, 6L))).thenReturn(List.of(fetched));
+        client.getCustomerById(1L);
+        
+        assertEquals(List.of(cached, fetched), client.getCustomersByIds(List.of(1L, 5L, 6L)));
+        assertSame(fetched, client.getCustomerById(5L));
+        
+        verify(delegate, never()).getCustomerById(5L);
+    }
+    
+    @Test
+    void reactiveBatchLookupsOnlyAskForTheMisses() {
+        CustomerDto cached = new CustomerDto();
+        cached.setId(1L);
+        CustomerDto fetched = new CustomerDto();
+        fetched.setId(5L);
+        when(delegate.getCustomerById(1L)).thenReturn(cached);
+        when(reactiveDelegate.getCustomersByIds(List.of(5L, 6L))).thenReturn(Mono.just(List.of(fetched)));
+        client.getCustomerById(1L);
+        
+        assertEquals(List.of(cached, fetched), client.getCustomersByIdsReactive(List.of(1L, 5L, 6L)).block());
+        assertSame(fetched, client.getCustomerByIdReactive(5L).block());
+        
+        verify(reactiveDelegate, never()).getCustomerById(5L);
+    }
+    
+    @Test
+    void reactiveBatchLookupsFallBackToTheLastKnownCustomers() {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(3L);
+        client = new CachingCustomerClient(delegate, reactiveDelegate, meterRegistry, CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                100, Duration.ofNanos(1), Duration.ofHours(24), true, Duration.ofSeconds(30), Duration.ofSeconds(1));
+        when(reactiveDelegate.getCustomersByIds(List.of(3L)))
+                .thenReturn(Mono.just(List.of(customer)))
+                .thenReturn(Mono.error(new IllegalStateException("customer-service timed out")));
+        
+        assertEquals(List.of(customer), client.getCustomersByIdsReactive(List.of(3L)).block());
+        assertEquals(List.of(customer), client.getCustomersByIdsReactive(List.of(3L)).block());
+        
+        verify(reactiveDelegate, times(2)).getCustomersByIds(List.of(3L));
+    }
+    
+    @Test
+    void reactiveLookupsShareTheCacheAndPendingLoads() {
+        CustomerDto cached = new CustomerDto();
+        cached.setId(1L);
+        when(delegate.getCustomerById(1L)).thenReturn(cached);
+        client.getCustomerById(1L);
+        assertSame(cached, client.getCustomerByIdReactive(1L).block());
+        verify(reactiveDelegate, never()).getCustomerById(1L);
+        
+        // Two subscribers, one remote call; neither blocks while it is outstanding
+        Sinks.One<CustomerDto> response = Sinks.one();
+        when(reactiveDelegate.getCustomerById(4L)).thenReturn(response.asMono());
+        Mono<CustomerDto> first = client.getCustomerByIdReactive(4L);
+        Mono<CustomerDto> second = client.getCustomerByIdReactive(4L);
+        CustomerDto customer = new CustomerDto();
+        customer.setId(4L);
+        first.subscribe();
+        second.subscribe();
+        response.tryEmitValue(customer);
+        
+        assertSame(customer, first.block());
+        assertSame(customer, second.block());
+        verify(reactiveDelegate, times(1)).getCustomerById(4L);
+    }
+    
+    @Test
+    void reactiveLookupsFallBackToTheLastKnownCustomer() {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(3L);
+        client = new CachingCustomerClient(delegate, reactiveDelegate, meterRegistry, CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                100, Duration.ofNanos(1), Duration.ofHours(24), true, Duration.ofSeconds(30), Duration.ofSeconds(1));
+        when(reactiveDelegate.getCustomerById(3L))
+                .thenReturn(Mono.just(customer))
+                .thenReturn(Mono.error(new IllegalStateException("customer-service timed out")));
+        
+        assertSame(customer, client.getCustomerByIdReactive(3L).block());
+        assertSame(customer, client.getCustomerByIdReactive(3L).block());
+        
+        verify(reactiveDelegate, times(2)).getCustomerById(3L);
+    }
+}
@@ -0,0 +1,127 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import com.project.orderservice.dto.CustomerDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerBatchLoaderTest {
+    
+    private CachingCustomerClient customerClient;
+    private CustomerBatchLoader loader;
+    
+    @BeforeEach
+    void setUp() {
+        customerClient = mock(CachingCustomerClient.class);
+        loader = new CustomerBatchLoader(customerClient, Executors.newFixedThreadPool(4), Duration.ofMinutes(5));
+    }
+    
+    @Test
+    void distinctIdsAreResolvedInOneBatchCall() {
+        when(customerClient.getCustomersByIds(List.of(7L, 8L))).thenReturn(List.of(customer(7L), customer(8L)));
+        
+        Map<Long, CustomerDto> customers = loader.getCustomersByIds(List.of(7L, 8L, 7L, 7L));
+        
+        assertEquals(List.of(7L, 8L), List.copyOf(customers.keySet()));
+        verify(customerClient, times(1)).getCustomersByIds(anyList());
+    }
+    
+    @Test
+    void largeIdSetsAreSplitIntoBatchCallsOfAtMostOneHundredIds() {
+        when(customerClient.getCustomersByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(CustomerBatchLoaderTest::customer).toList();
+        });
+        List<Long> ids = LongStream.rangeClosed(1, 250).boxed().toList();
+        
+        assertEquals(ids, List.copyOf(loader.getCustomersByIds(ids).keySet()));
+        verify(customerClient).getCustomersByIds(ids.subList(0, 100));
+        verify(customerClient).getCustomersByIds(ids.subList(100, 200));
+        verify(customerClient).getCustomersByIds(ids.subList(200, 250));
+        verify(customerClient, times(3)).getCustomersByIds(anyList());
+    }
+    
+    @Test
+    void missingBatchEndpointFallsBackToSingleLookups() {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/customers/batch", Map.of(), null, StandardCharsets.UTF_8, null);
+        when(customerClient.getCustomersByIds(anyList())).thenThrow(new FeignException.NotFound("no batch", request, null, null));
+        when(customerClient.getCustomerById(7L)).thenReturn(customer(7L));
+        when(customerClient.getCustomerById(9L)).thenThrow(new FeignException.NotFound("missing", request, null, null));
+        
+        assertEquals(List.of(7L), List.copyOf(loader.getCustomersByIds(List.of(7L, 9L)).keySet()));
+        assertEquals(List.of(7L), List.copyOf(loader.getCustomersByIds(List.of(7L, 9L)).keySet()));
+        
+        // The batch endpoint is not retried until the retry interval has passed
+        verify(customerClient, times(1)).getCustomersByIds(anyList());
+        verify(customerClient, times(2)).getCustomerById(7L);
+    }
+    
+    @Test
+    void batchRouteAnsweringBadRequestFallsBackToSingleLookups() {
+        // Without the endpoint, /batch is routed to /{id} and fails converting "batch" to an id
+        Request request = Request.create(Request.HttpMethod.GET, "/api/customers/batch", Map.of(), null, StandardCharsets.UTF_8, null);
+        when(customerClient.getCustomersByIds(anyList())).thenThrow(new FeignException.BadRequest("batch is not a number", request, null, null));
+        when(customerClient.getCustomerById(7L)).thenReturn(customer(7L));
+        
+        assertEquals(List.of(7L), List.copyOf(loader.getCustomersByIds(List.of(7L)).keySet()));
+        verify(customerClient, times(1)).getCustomerById(7L);
+    }
+    
+    @Test
+    void reactiveLookupsUseTheSameChunkedBatchCalls() {
+        when(customerClient.getCustomersByIdsReactive(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return Mono.just(ids.stream().map(CustomerBatchLoaderTest::customer).toList());
+        });
+        List<Long> ids = LongStream.rangeClosed(1, 150).boxed().toList();
+        
+        assertEquals(ids, List.copyOf(loader.getCustomersByIdsReactive(ids).block().keySet()));
+        verify(customerClient).getCustomersByIdsReactive(ids.subList(0, 100));
+        verify(customerClient).getCustomersByIdsReactive(ids.subList(100, 150));
+        verify(customerClient, never()).getCustomerByIdReactive(anyLong());
+    }
+    
+    @Test
+    void reactiveLookupsFallBackToSingleLookupsAndShareTheMissingBatchEndpoint() {
+        when(customerClient.getCustomersByIdsReactive(anyList())).thenReturn(Mono.error(
+                WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8)));
+        when(customerClient.getCustomerByIdReactive(7L)).thenReturn(Mono.just(customer(7L)));
+        when(customerClient.getCustomerByIdReactive(9L)).thenReturn(Mono.error(new IllegalStateException("timed out")));
+        when(customerClient.getCustomerById(7L)).thenReturn(customer(7L));
+        
+        assertEquals(List.of(7L), List.copyOf(loader.getCustomersByIdsReactive(List.of(7L, 9L)).block().keySet()));
+        
+        // Neither path tries the batch endpoint again until the retry interval has passed
+        assertEquals(List.of(7L), List.copyOf(loader.getCustomersByIdsReactive(List.of(7L)).block().keySet()));
+        assertEquals(List.of(7L), List.copyOf(loader.getCustomersByIds(List.of(7L)).keySet()));
+        verify(customerClient, times(1)).getCustomersByIdsReactive(anyList());
+        verify(customerClient, never()).getCustomersByIds(anyList());
+    }
+    
+    private static CustomerDto customer(Long id) {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(id);
+        return customer;
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.orderservice.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DownstreamGuardTest {
+    
+    @Test
+    void openBreakerFailsFastWithoutCallingTheService() {
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .build());
+        DownstreamGuard guard = new DownstreamGuard("product-service", circuitBreakerRegistry, BulkheadRegistry.ofDefaults());
+        AtomicInteger calls = new AtomicInteger();
+        
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.call(() -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("product-service timed out");
+            }));
+        }
+        
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(() -> calls.incrementAndGet()));
+        assertEquals(4, calls.get());
+    }
+}
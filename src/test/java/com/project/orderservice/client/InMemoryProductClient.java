@@ -0,0 +1,102 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import feign.Request;
+
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.dto.StockAdjustmentDto;
+import com.project.orderservice.dto.StockReservationDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for product-service. Reservations are applied all-or-nothing under a lock,
+ * mirroring the contract of the real reservation endpoint.
+ */
+public class InMemoryProductClient implements ProductClient {
+    
+    private final Map<Long, ProductDto> products = new ConcurrentHashMap<>();
+    private final AtomicInteger reservationCalls = new AtomicInteger();
+    private final AtomicInteger lookupCalls = new AtomicInteger();
+    
+    public InMemoryProductClient addProduct(Long id, String name, double price, int quantity) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setQuantity(quantity);
+        products.put(id, product);
+        return this;
+    }
+    
+    public synchronized int getQuantity(Long productId) {
+        return products.get(productId).getQuantity();
+    }
+    
+    public int getReservationCalls() {
+        return reservationCalls.get();
+    }
+    
+    public int getLookupCalls() {
+        return lookupCalls.get();
+    }
+    
+    @Override
+    public synchronized ProductDto getProductById(Long id) {
+        lookupCalls.incrementAndGet();
+        ProductDto product = products.get(id);
+        if (product == null) {
+            throw new FeignException.NotFound("Product not found", request(), null, null);
+        }
+        return copy(product);
+    }
+    
+    @Override
+    public synchronized List<ProductDto> getProductsByIds(List<Long> ids) {
+        lookupCalls.incrementAndGet();
+        List<ProductDto> found = new ArrayList<>();
+        for (Long id : ids) {
+            ProductDto product = products.get(id);
+            if (product != null) {
+                found.add(copy(product));
+            }
+        }
+        return found;
+    }
+    
+    @Override
+    public synchronized void reserveStock(StockReservationDto reservation) {
+        reservationCalls.incrementAndGet();
+        for (StockAdjustmentDto adjustment : reservation.getAdjustments()) {
+            ProductDto product = products.get(adjustment.getProductId());
+            if (product == null) {
+                throw new FeignException.NotFound("Product not found", request(), null, null);
+            }
+            if (product.getQuantity() + adjustment.getDelta() < 0) {
+                throw new FeignException.Conflict("Insufficient stock", request(), null, null);
+            }
+        }
+        for (StockAdjustmentDto adjustment : reservation.getAdjustments()) {
+            ProductDto product = products.get(adjustment.getProductId());
+            product.setQuantity(product.getQuantity() + adjustment.getDelta());
+        }
+    }
+    
+    private static ProductDto copy(ProductDto source) {
+        ProductDto product = new ProductDto();
+        product.setId(source.getId());
+        product.setName(source.getName());
+        product.setPrice(source.getPrice());
+        product.setQuantity(source.getQuantity());
+        return product;
+    }
+    
+    private static Request request() {
+        return Request.create(Request.HttpMethod.POST, "/api/products", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
@@ -0,0 +1,115 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.Test;
+
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductBatchLoaderTest {
+    
+    @Test
+    void distinctIdsAreResolvedInOneBatchCallAndUnknownIdsAreAbsent() {
+        InMemoryProductClient productClient = products();
+        ProductBatchLoader loader = new ProductBatchLoader(productClient, Executors.newFixedThreadPool(4), Duration.ofMinutes(5));
+        
+        Map<Long, ProductDto> found = loader.getProductsByIds(List.of(1L, 2L, 1L, 99L));
+        
+        assertEquals(List.of(1L, 2L), List.copyOf(found.keySet()));
+        assertEquals(1, productClient.getLookupCalls());
+    }
+    
+    @Test
+    void missingBatchEndpointFallsBackToSingleLookupsUntilTheRetryInterval() {
+        // Without the endpoint, /batch is routed to /{id} and answers 400
+        WithoutBatchEndpoint productClient = new WithoutBatchEndpoint(new FeignException.BadRequest("batch is not a number", request(), null, null));
+        ProductBatchLoader loader = new ProductBatchLoader(productClient, Executors.newFixedThreadPool(4), Duration.ofMinutes(5));
+        
+        assertEquals(List.of(1L, 2L), List.copyOf(loader.getProductsByIds(List.of(1L, 2L, 99L)).keySet()));
+        assertEquals(List.of(1L), List.copyOf(loader.getProductsByIds(List.of(1L)).keySet()));
+        
+        assertEquals(1, productClient.batchCalls.get());
+        assertEquals(4, productClient.getLookupCalls());
+    }
+    
+    @Test
+    void batchEndpointIsRetriedOnceTheIntervalHasPassed() {
+        WithoutBatchEndpoint productClient = new WithoutBatchEndpoint(new FeignException.NotFound("no such route", request(), null, null));
+        ProductBatchLoader loader = new ProductBatchLoader(productClient, Runnable::run, Duration.ZERO);
+        
+        loader.getProductsByIds(List.of(1L));
+        loader.getProductsByIds(List.of(1L));
+        
+        assertEquals(2, productClient.batchCalls.get());
+    }
+    
+    @Test
+    void productServiceFailuresDuringTheFanOutSurfaceAsServiceUnavailable() {
+        WithoutBatchEndpoint productClient = new WithoutBatchEndpoint(new FeignException.NotFound("no such route", request(), null, null)) {
+            @Override
+            public ProductDto getProductById(Long id) {
+                if (id == 2L) {
+                    throw new FeignException.ServiceUnavailable("product-service is restarting", request(), null, null);
+                }
+                return super.getProductById(id);
+            }
+        };
+        ProductBatchLoader loader = new ProductBatchLoader(productClient, Executors.newFixedThreadPool(4), Duration.ofMinutes(5));
+        
+        ServiceUnavailableException failure = assertThrows(ServiceUnavailableException.class,
+                () -> loader.getProductsByIds(List.of(1L, 2L)));
+        assertInstanceOf(FeignException.ServiceUnavailable.class, failure.getCause());
+        // An unknown product is still just absent
+        assertEquals(List.of(1L), List.copyOf(loader.getProductsByIds(List.of(1L, 99L)).keySet()));
+    }
+    
+    @Test
+    void aFailingBatchCallSurfacesAsServiceUnavailable() {
+        WithoutBatchEndpoint productClient = new WithoutBatchEndpoint(
+                new FeignException.InternalServerError("database is down", request(), null, null));
+        ProductBatchLoader loader = new ProductBatchLoader(productClient, Runnable::run, Duration.ofMinutes(5));
+        
+        assertThrows(ServiceUnavailableException.class, () -> loader.getProductsByIds(List.of(1L)));
+    }
+    
+    private static InMemoryProductClient products() {
+        return new InMemoryProductClient()
+                .addProduct(1L, "Keyboard", 20.0, 10)
+                .addProduct(2L, "Mouse", 5.0, 3);
+    }
+    
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "/api/products/batch", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+    
+    // A product-service that predates the batch endpoint
+    private static class WithoutBatchEndpoint extends InMemoryProductClient {
+        
+        private final FeignException batchFailure;
+        private final AtomicInteger batchCalls = new AtomicInteger();
+        
+        WithoutBatchEndpoint(FeignException batchFailure) {
+            this.batchFailure = batchFailure;
+            addProduct(1L, "Keyboard", 20.0, 10);
+            addProduct(2L, "Mouse", 5.0, 3);
+        }
+        
+        @Override
+        public List<ProductDto> getProductsByIds(List<Long> ids) {
+            batchCalls.incrementAndGet();
+            throw batchFailure;
+        }
+    }
+}
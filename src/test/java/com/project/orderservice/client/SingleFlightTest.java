@@ -0,0 +1,151 @@
+package com.project.orderservice.client;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.project.orderservice.exception.ServiceUnavailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService threads;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        threads = Executors.newFixedThreadPool(8);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+    
+    @Test
+    void concurrentCallsForOneKeyShareTheResult() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("products", Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        
+        List<Future<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(threads.submit(() -> flight.execute(1L, () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "product-1";
+            })));
+        }
+        // Everyone but the caller performing the call is parked on it
+        while (meterRegistry.get("orderservice.singleflight.collapsed").counter().count() < 7) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        
+        for (Future<String> caller : callers) {
+            assertEquals("product-1", caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        
+        // Once completed nothing is remembered
+        assertEquals("again", flight.execute(1L, () -> "again"));
+    }
+    
+    @Test
+    void waitersGetTheirOwnCopyOfTheError() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("customers", Duration.ofSeconds(5), meterRegistry);
+        FeignException.NotFound notFound = new FeignException.NotFound("missing",
+                Request.create(Request.HttpMethod.GET, "/api/customers/2", Map.of(), null, StandardCharsets.UTF_8, null),
+                null, null);
+        
+        List<Throwable> errors = failConcurrently(flight, 2L, notFound);
+        assertEquals(1, errors.stream().filter(error -> error == notFound).count());
+        for (Throwable error : errors) {
+            assertInstanceOf(FeignException.NotFound.class, error);
+            assertEquals(404, ((FeignException) error).status());
+        }
+        
+        IllegalStateException failure = new IllegalStateException("customer-service failed");
+        errors = failConcurrently(flight, 3L, failure);
+        assertEquals(1, errors.stream().filter(error -> error == failure).count());
+        for (Throwable error : errors) {
+            if (error != failure) {
+                assertSame(failure, assertInstanceOf(ServiceUnavailableException.class, error).getCause());
+            }
+        }
+    }
+    
+    @Test
+    void waitersGiveUpAfterTheTimeout() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("customers", Duration.ofMillis(50), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        Future<String> slow = threads.submit(() -> flight.execute(3L, () -> {
+            started.countDown();
+            await(release);
+            return "customer-3";
+        }));
+        started.await();
+        
+        assertThrows(ServiceUnavailableException.class, () -> flight.execute(3L, () -> "not called"));
+        assertEquals(1.0, meterRegistry.get("orderservice.singleflight.timeouts").counter().count());
+        
+        // The shared call itself is unaffected by its waiters giving up
+        release.countDown();
+        assertEquals("customer-3", slow.get(5, TimeUnit.SECONDS));
+    }
+    
+    // One caller performs the call and throws failure, the other waits on it; returns what each one threw
+    private List<Throwable> failConcurrently(SingleFlight<Long, String> flight, Long key, RuntimeException failure)
+            throws Exception {
+        double collapsed = meterRegistry.get("orderservice.singleflight.collapsed").counter().count();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            callers.add(threads.submit(() -> flight.execute(key, () -> {
+                await(release);
+                throw failure;
+            })));
+        }
+        while (meterRegistry.get("orderservice.singleflight.collapsed").counter().count() < collapsed + 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        
+        List<Throwable> errors = new ArrayList<>();
+        for (Future<String> caller : callers) {
+            errors.add(assertThrows(ExecutionException.class, caller::get).getCause());
+        }
+        return errors;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.orderservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.repository.OrderRepository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two separate H2 databases stand in for primary and replica; the test plays the part of replication
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "order.datasource.replica.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "order.datasource.replica.username=sa",
+        "order.datasource.replica.max-lag=5s"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ReplicaDataSourceConfig.class)
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate primary;
+    // The replica's pool is read-only, so "replication" writes go around it
+    private JdbcTemplate replicaWriter;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replicaWriter = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        // Copy the schema Hibernate created on the primary
+        replicaWriter.execute("drop all objects");
+        for (String statement : primary.queryForList("script nodata", String.class)) {
+            if (statement.startsWith("CREATE") && !statement.startsWith("CREATE USER")) {
+                replicaWriter.execute(statement);
+            }
+        }
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaOnlyWhileItIsCaughtUp() {
+        orderRepository.save(order());
+
+        // No heartbeat on the replica yet: reads stay on the primary
+        lagMonitor.probe();
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(1, countOrders(true));
+
+        // Heartbeat replicated, order not yet: read-only transactions now see the replica's state
+        lagMonitor.writeHeartbeat();
+        replicateHeartbeat(primary.queryForObject("select beat_at from replica_heartbeat where id = 1", Timestamp.class));
+        lagMonitor.checkLag();
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals(0, countOrders(true));
+        assertEquals(1, countOrders(false));
+
+        // Replica stuck a minute behind: back to the primary
+        replicateHeartbeat(Timestamp.from(Instant.now().minus(1, ChronoUnit.MINUTES)));
+        lagMonitor.checkLag();
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(1, countOrders(true));
+    }
+
+    private long countOrders(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> orderRepository.count());
+    }
+
+    private void replicateHeartbeat(Timestamp beatAt) {
+        replicaWriter.update("merge into replica_heartbeat (id, beat_at) key (id) values (1, ?)", beatAt);
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.setCustomerId(7L);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(10.0);
+        return order;
+    }
+}
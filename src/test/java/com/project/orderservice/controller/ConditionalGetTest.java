@@ -0,0 +1,82 @@
+package com.project.orderservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.project.orderservice.dto.InvoiceDto;
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.service.CustomerNameEnricher;
+import com.project.orderservice.service.IdempotencyKeyStore;
+import com.project.orderservice.service.InvoiceService;
+import com.project.orderservice.service.OrderService;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {OrderController.class, InvoiceController.class})
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderService orderService;
+
+    @MockBean
+    private InvoiceService invoiceService;
+
+    @MockBean
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @MockBean
+    private CustomerNameEnricher customerNameEnricher;
+
+    @Test
+    void currentOrderETagSkipsLoadingTheOrder() throws Exception {
+        OrderDto order = new OrderDto();
+        order.setId(42L);
+        when(orderService.getOrderVersion(42L)).thenReturn(3L);
+        when(orderService.getOrderById(42L)).thenReturn(order);
+
+        mockMvc.perform(get("/api/orders/42"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.id").value(42));
+
+        mockMvc.perform(get("/api/orders/42").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+        verify(orderService).getOrderById(42L);
+
+        // Changed since: full response with the new tag
+        when(orderService.getOrderVersion(42L)).thenReturn(4L);
+        mockMvc.perform(get("/api/orders/42").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void currentInvoiceETagSkipsLoadingTheInvoice() throws Exception {
+        when(invoiceService.getInvoiceVersion(7L)).thenReturn(0L);
+
+        mockMvc.perform(get("/api/invoices/7").header("If-None-Match", "\"1\", \"0\""))
+                .andExpect(status().isNotModified());
+        verify(invoiceService, never()).getInvoiceById(anyLong());
+
+        when(invoiceService.getInvoiceById(7L)).thenReturn(new InvoiceDto());
+        mockMvc.perform(get("/api/invoices/7").header("If-None-Match", "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+    }
+}
@@ -0,0 +1,191 @@
+package com.project.orderservice.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.orderservice.config.OrderEventProperties;
+import com.project.orderservice.model.OrderStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderEventBus bus;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bus.stop();
+    }
+
+    @Test
+    void subscribersGetTheirEventsInBatches() throws Exception {
+        RecordingSubscriber created = new RecordingSubscriber("created", OrderCreated.class);
+        RecordingSubscriber deleted = new RecordingSubscriber("deleted", OrderDeleted.class);
+        bus = start(settings(1024, 10, Duration.ofMillis(200)), created, deleted);
+
+        for (long id = 1; id <= 25; id++) {
+            bus.publish(new OrderCreated(id, 7L, 10.0));
+        }
+        bus.publish(new OrderDeleted(99L, 7L));
+
+        assertEquals(List.of(10, 10, 5), List.of(created.next().size(), created.next().size(), created.next().size()));
+        assertEquals(List.of(new OrderDeleted(99L, 7L)), deleted.next());
+        assertNull(created.batches.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void eventsOfATransactionAreDeliveredOnlyIfItCommits() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber("all", OrderEvent.class);
+        bus = start(settings(1024, 10, Duration.ZERO), subscriber);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> bus.publish(new OrderCreated(1L, 7L, 10.0)));
+        OrderStatusChanged shipped = new OrderStatusChanged(2L, 7L, OrderStatus.PROCESSING, OrderStatus.SHIPPED);
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            bus.publish(shipped);
+            // Nothing leaves before the commit
+            assertTrue(subscriber.batches.isEmpty());
+        });
+
+        assertEquals(List.of(shipped), subscriber.next());
+        assertNull(subscriber.batches.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void aFullQueueHoldsThePublisherThenDropsTheEvent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber slow = new RecordingSubscriber("slow", OrderEvent.class) {
+            @Override
+            public void onEvents(List<OrderEvent> events) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onEvents(events);
+            }
+        };
+        bus = start(settings(2, 1, Duration.ZERO), slow);
+
+        // One event in the consumer's hands, two queued, the fourth waits out the publish timeout
+        for (long id = 1; id <= 3; id++) {
+            bus.publish(new OrderCreated(id, 7L, 10.0));
+            Thread.sleep(50);
+        }
+        long start = System.nanoTime();
+        bus.publish(new OrderCreated(4L, 7L, 10.0));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1.0, meterRegistry.counter("orderservice.events.dropped", "subscriber", "slow").count());
+
+        release.countDown();
+        assertEquals(List.of(1L, 2L, 3L), List.of(slow.next().get(0).orderId(), slow.next().get(0).orderId(),
+                slow.next().get(0).orderId()));
+    }
+
+    @Test
+    void aLargeCommitWaitsForAFullQueueOnlyOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber slow = new RecordingSubscriber("slow", OrderEvent.class) {
+            @Override
+            public void onEvents(List<OrderEvent> events) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onEvents(events);
+            }
+        };
+        bus = start(settings(2, 1, Duration.ZERO), slow);
+
+        // A bulk request committing 5,000 events against a queue with room for a handful
+        long start = System.nanoTime();
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            for (long id = 1; id <= 5000; id++) {
+                bus.publish(new OrderCreated(id, 7L, 10.0));
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(1000), "held the committing thread for " + elapsed + " ns");
+        assertTrue(meterRegistry.counter("orderservice.events.dropped", "subscriber", "slow").count() >= 4997);
+        release.countDown();
+    }
+
+    private OrderEventBus start(OrderEventProperties properties, OrderEventSubscriber... subscribers) {
+        OrderEventBus started = new OrderEventBus(List.of(subscribers), properties, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private static OrderEventProperties settings(int capacity, int batchSize, Duration maxWait) {
+        OrderEventProperties properties = new OrderEventProperties();
+        properties.setPublishTimeout(Duration.ofMillis(100));
+        OrderEventProperties.Subscriber defaults = new OrderEventProperties.Subscriber();
+        defaults.setCapacity(capacity);
+        defaults.setBatchSize(batchSize);
+        defaults.setMaxWait(maxWait);
+        for (String name : List.of("created", "deleted", "all", "slow")) {
+            properties.getSubscribers().put(name, defaults);
+        }
+        return properties;
+    }
+
+    // Stands in for the transaction manager: runs the body, then completes the synchronizations with the given status
+    private static void inTransaction(int status, Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(status);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static class RecordingSubscriber implements OrderEventSubscriber {
+
+        private final String name;
+        private final Class<? extends OrderEvent> type;
+        private final BlockingQueue<List<OrderEvent>> batches = new LinkedBlockingQueue<>();
+
+        RecordingSubscriber(String name, Class<? extends OrderEvent> type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean accepts(OrderEvent event) {
+            return type.isInstance(event);
+        }
+
+        @Override
+        public void onEvents(List<OrderEvent> events) {
+            batches.add(events);
+        }
+
+        List<OrderEvent> next() throws InterruptedException {
+            List<OrderEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+            assertTrue(batch != null, "no batch delivered to " + name);
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.orderservice.metrics;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+
+import com.project.orderservice.OrderServiceApplication;
+import com.project.orderservice.client.CustomerClient;
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.repository.OrderRepository;
+import com.project.orderservice.service.InvoiceService;
+import com.project.orderservice.service.ReactiveOrderService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = OrderServiceApplication.class)
+class CallMetricsAspectTest {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private InvoiceService invoiceService;
+    
+    @Autowired
+    private CustomerClient customerClient;
+    
+    @Autowired
+    private ReactiveOrderService reactiveOrderService;
+    
+    @Test
+    void repositoryAndServiceCallsAreTimed() {
+        orderRepository.count();
+        invoiceService.getAllInvoices();
+        
+        assertEquals(1, meterRegistry.get(CallMetricsAspect.REPOSITORY_CALLS)
+                .tags("repository", "OrderRepository", "method", "count", "outcome", "SUCCESS").timer().count());
+        assertEquals(1, meterRegistry.get(CallMetricsAspect.SERVICE_CALLS)
+                .tags("service", "InvoiceService", "method", "getAllInvoices", "outcome", "SUCCESS").timer().count());
+    }
+    
+    @Test
+    void reactiveServiceCallsAreTimedWhenTheyComplete() {
+        Flux<OrderDto> orders = reactiveOrderService.getOrdersByCustomerId(404L);
+        assertTrue(meterRegistry.find(CallMetricsAspect.SERVICE_CALLS)
+                .tags("service", "ReactiveOrderService", "method", "getOrdersByCustomerId").timers().isEmpty());
+        
+        orders.collectList().block();
+        
+        assertEquals(1, meterRegistry.get(CallMetricsAspect.SERVICE_CALLS)
+                .tags("service", "ReactiveOrderService", "method", "getOrdersByCustomerId", "outcome", "SUCCESS").timer().count());
+    }
+    
+    @Test
+    void failedFeignCallsAreTimedOnceWithTheirStatus() {
+        // No customer-service instance is registered in tests, so the load balancer answers 503
+        assertThrows(FeignException.class, () -> customerClient.getCustomerById(1L));
+        
+        assertEquals(1, meterRegistry.get(CallMetricsAspect.CLIENT_CALLS)
+                .tags("client", "customer-service", "method", "getCustomerById", "outcome", "SERVER_ERROR", "status", "503")
+                .timer().count());
+    }
+}
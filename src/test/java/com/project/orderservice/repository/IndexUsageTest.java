@@ -0,0 +1,65 @@
+package com.project.orderservice.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the plans of the finders' access patterns against the declared indexes. The plan text is
+ * matched on index name only, which works for H2's plan string as well as MySQL's EXPLAIN key column.
+ */
+@DataJpaTest
+class IndexUsageTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void customerFindersUseTheCustomerDateIndex() {
+        assertUsesIndex("idx_orders_customer_date", "select id from orders where customer_id = 7 "
+                + "and (order_date > timestamp '2024-01-01 00:00:00' or (order_date = timestamp '2024-01-01 00:00:00' and id > 0)) "
+                + "order by order_date, id limit 51");
+    }
+
+    @Test
+    void customerAndStatusPagesUseTheCombinedIndex() {
+        assertUsesIndex("idx_orders_customer_status_date", "select id from orders where customer_id = 7 and status = 'SHIPPED' "
+                + "and order_date <= timestamp '2024-12-31 00:00:00' "
+                + "and (order_date > timestamp '2024-01-01 00:00:00' or (order_date = timestamp '2024-01-01 00:00:00' and id > 0)) "
+                + "order by order_date, id limit 51");
+    }
+
+    @Test
+    void statusFindersUseTheStatusDateIndex() {
+        assertUsesIndex("idx_orders_status_date", "select id from orders where status = 'PENDING' order by order_date, id limit 51");
+    }
+
+    @Test
+    void dateRangeFindersUseTheDateIndex() {
+        assertUsesIndex("idx_orders_date", "select id from orders "
+                + "where order_date between timestamp '2024-01-01 00:00:00' and timestamp '2024-02-01 00:00:00'");
+    }
+
+    @Test
+    void productAndIssueDateFindersUseTheirIndexes() {
+        assertUsesIndex("idx_order_items_product", "select id, quantity from order_items where product_id = 3");
+        assertUsesIndex("idx_invoices_issue_date", "select id from invoices "
+                + "where issue_date between timestamp '2024-01-01 00:00:00' and timestamp '2024-02-01 00:00:00'");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        List<?> rows = entityManager.createNativeQuery("explain " + sql).getResultList();
+        String plan = rows.stream()
+                .map(row -> row instanceof Object[] columns ? Arrays.toString(columns) : String.valueOf(row))
+                .collect(Collectors.joining("\n"));
+        assertTrue(plan.toLowerCase(Locale.ROOT).contains(index), "expected " + index + " in plan:\n" + plan);
+    }
+}
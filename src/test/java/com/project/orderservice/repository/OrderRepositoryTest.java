@@ -0,0 +1,216 @@
+package com.project.orderservice.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.orderservice.dto.InvoiceDto;
+import com.project.orderservice.model.Invoice;
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderItem;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.repository.projection.OrderItemRow;
+import com.project.orderservice.repository.projection.OrderRow;
+import com.project.orderservice.repository.projection.OrderStatusRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderRepositoryTest {
+    
+    private static final int ORDER_COUNT = 5;
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 3, 1, 10, 0);
+    // Larger than any order count the tests use
+    private static final PageRequest LIMIT = PageRequest.of(0, 100);
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            entityManager.persist(newOrder(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    // The listings the controllers serve must cost the same statements however many orders they return
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void orderListingsProjectRowsAndItemsInAFixedNumberOfStatements(int orderCount) {
+        persistMoreOrders(orderCount);
+        Statistics statistics = statistics();
+        
+        // Unpaged listing: order rows, then the item rows of all of them
+        List<OrderRow> rows = orderRepository.findRowsByCustomerId(7L, LIMIT);
+        List<OrderItemRow> items = orderItemRepository.findRowsByOrderIdIn(rows.stream().map(OrderRow::id).toList());
+        
+        assertEquals(orderCount, rows.size());
+        assertEquals(orderCount * 3, items.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        
+        // Keyset page: ids, then order rows and item rows for those ids
+        statistics.clear();
+        List<Long> pageIds = orderRepository.findPageIdsByCustomerId(7L, ORDER_DATE.minusYears(1), 0L, LIMIT);
+        List<OrderRow> pageRows = orderRepository.findRowsByIdIn(pageIds);
+        List<OrderItemRow> pageItems = orderItemRepository.findRowsByOrderIdIn(pageIds);
+        
+        assertEquals(orderCount, pageRows.size());
+        assertEquals(orderCount * 3, pageItems.size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void invoiceListingsProjectDtosInOneStatement(int orderCount) {
+        persistMoreOrders(orderCount);
+        Statistics statistics = statistics();
+        
+        List<InvoiceDto> all = invoiceRepository.findAllDtos(LIMIT);
+        assertEquals(orderCount, all.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        
+        statistics.clear();
+        List<InvoiceDto> page = invoiceRepository.findPage(ORDER_DATE.minusYears(1), 0L, LIMIT);
+        assertEquals(orderCount, page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+    
+    @Test
+    void keysetPagesWalkOrdersByDateThenId() {
+        List<Long> all = orderRepository.findPageIds(ORDER_DATE.minusYears(1), 0L, PageRequest.of(0, 10));
+        assertEquals(ORDER_COUNT, all.size());
+        
+        Order second = orderRepository.findById(all.get(1)).orElseThrow();
+        List<Long> rest = orderRepository.findPageIds(second.getOrderDate(), second.getId(), PageRequest.of(0, 10));
+        
+        assertEquals(all.subList(2, ORDER_COUNT), rest);
+    }
+    
+    @Test
+    @Transactional(readOnly = true)
+    void streamAllEmitsCompleteOrdersFromOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            List<Order> streamed = orders.toList();
+            assertEquals(ORDER_COUNT, streamed.size());
+            streamed.forEach(order -> assertEquals(3, order.getItems().size()));
+        }
+        
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void statusUpdateOnlyMovesOrdersStillInTheExpectedStatus() {
+        List<Long> ids = orderRepository.findStatusRowsForUpdate(orderRepository.findPageIds(
+                ORDER_DATE.minusYears(1), 0L, PageRequest.of(0, 10))).stream().map(OrderStatusRow::id).toList();
+        assertEquals(ORDER_COUNT, ids.size());
+        
+        assertEquals(2, orderRepository.updateStatus(ids.subList(0, 2), OrderStatus.PENDING, OrderStatus.PROCESSING));
+        assertEquals(ORDER_COUNT - 2, orderRepository.updateStatus(ids, OrderStatus.PENDING, OrderStatus.CANCELLED));
+        
+        assertEquals(2, orderRepository.findRowsByStatus(OrderStatus.PROCESSING, PageRequest.of(0, 10)).size());
+        assertEquals(ORDER_COUNT - 2, orderRepository.findRowsByStatus(OrderStatus.CANCELLED, PageRequest.of(0, 10)).size());
+    }
+    
+    @Test
+    void invoiceSweepFindsOnlyOrdersWithoutAnInvoiceInTheWindow() {
+        Order uninvoiced = newOrder(ORDER_COUNT);
+        uninvoiced.setInvoice(null);
+        Long id = entityManager.persistAndFlush(uninvoiced).getId();
+        Order outsideWindow = newOrder(ORDER_COUNT + 48);
+        outsideWindow.setInvoice(null);
+        Long outsideId = entityManager.persistAndFlush(outsideWindow).getId();
+        
+        assertEquals(List.of(id), orderRepository.findIdsWithoutInvoice(ORDER_DATE, ORDER_DATE.plusDays(1), PageRequest.of(0, 10)));
+        List<Long> all = orderRepository.findPageIds(ORDER_DATE.minusYears(1), 0L, PageRequest.of(0, 10));
+        assertEquals(List.of(id, outsideId), orderRepository.findWithoutInvoiceByIdIn(all).stream().map(Order::getId).sorted().toList());
+    }
+    
+    @Test
+    void savingManyOrdersBatchesInsertsPerTable() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        List<Order> orders = new ArrayList<>();
+        for (int i = ORDER_COUNT; i < ORDER_COUNT + 40; i++) {
+            orders.add(newOrder(i));
+        }
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+        
+        // 40 orders, 120 items and 40 invoices; one statement per row would be 200
+        assertEquals(200, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 15,
+                "prepared " + statistics.getPrepareStatementCount() + " statements");
+    }
+    
+    // Tops the orders persisted in setUp up to orderCount
+    private void persistMoreOrders(int orderCount) {
+        for (int i = ORDER_COUNT; i < orderCount; i++) {
+            entityManager.persist(newOrder(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+    
+    private static Order newOrder(int i) {
+        Order order = new Order();
+        order.setCustomerId(7L);
+        order.setOrderDate(ORDER_DATE.plusHours(i));
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(30.0);
+        for (long productId = 1; productId <= 3; productId++) {
+            OrderItem item = new OrderItem();
+            item.setProductId(productId);
+            item.setQuantity(1);
+            item.setPrice(10.0);
+            order.addItem(item);
+        }
+        Invoice invoice = new Invoice();
+        invoice.setOrder(order);
+        invoice.setInvoiceNumber("INV-" + i);
+        invoice.setIssueDate(ORDER_DATE);
+        invoice.setTotalAmount(34.5);
+        order.setInvoice(invoice);
+        return order;
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.orderservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.orderservice.repository.InvoiceNumberBlockRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional: block reservations commit in their own transactions
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailyBlockInvoiceNumberAllocatorTest {
+
+    private static final LocalDateTime ISSUED = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Autowired
+    private InvoiceNumberBlockRepository blockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    void numbersArePaddedPerDaySequences() {
+        DailyBlockInvoiceNumberAllocator allocator = new DailyBlockInvoiceNumberAllocator(blockRepository, transactionManager, 2);
+
+        assertEquals("INV-20240301-0000001", allocator.nextInvoiceNumber(null, ISSUED));
+        assertEquals("INV-20240301-0000002", allocator.nextInvoiceNumber(null, ISSUED));
+        assertEquals("INV-20240301-0000003", allocator.nextInvoiceNumber(null, ISSUED.plusHours(1)));
+        assertEquals("INV-20240302-0000001", allocator.nextInvoiceNumber(null, ISSUED.plusDays(1)));
+    }
+
+    @Test
+    void nodesSharingTheDatabaseNeverHandOutTheSameNumber() throws Exception {
+        // Two allocators stand in for two order-service nodes
+        List<DailyBlockInvoiceNumberAllocator> nodes = List.of(
+                new DailyBlockInvoiceNumberAllocator(blockRepository, transactionManager, 10),
+                new DailyBlockInvoiceNumberAllocator(blockRepository, transactionManager, 10));
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                DailyBlockInvoiceNumberAllocator node = nodes.get(t % 2);
+                workers.add(threads.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        assertTrue(numbers.add(node.nextInvoiceNumber(null, ISSUED)));
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+
+        assertEquals(400, numbers.size());
+        // Only whole blocks are reserved; at most one partly used block per node
+        long reserved = blockRepository.findById(ISSUED.toLocalDate()).orElseThrow().getNextValue() - 1;
+        assertTrue(reserved >= 400 && reserved <= 420, "reserved " + reserved);
+    }
+}
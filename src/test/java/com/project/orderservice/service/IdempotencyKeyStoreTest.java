@@ -0,0 +1,162 @@
+package com.project.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.exception.IdempotencyKeyConflictException;
+import com.project.orderservice.repository.IdempotencyRecordRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional: claims and responses commit in their own transactions
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyKeyStoreTest {
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        executions.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void retriesReplayTheStoredResponse() {
+        IdempotencyKeyStore.Result<OrderDto> first = newStore().execute("key-1", request(7L), OrderDto.class, this::createOrder);
+        assertFalse(first.replayed());
+
+        // A fresh store has an empty cache, as another node would: the replay comes from the table
+        IdempotencyKeyStore.Result<OrderDto> retry = newStore().execute("key-1", request(7L), OrderDto.class, this::createOrder);
+        assertTrue(retry.replayed());
+        assertEquals(first.response(), retry.response());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() {
+        IdempotencyKeyStore store = newStore();
+        store.execute("key-1", request(7L), OrderDto.class, this::createOrder);
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("key-1", request(8L), OrderDto.class, this::createOrder));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failedRequestsReleaseTheirKey() {
+        IdempotencyKeyStore store = newStore();
+        assertThrows(IllegalStateException.class, () -> store.execute("key-1", request(7L), OrderDto.class, () -> {
+            throw new IllegalStateException("out of stock");
+        }));
+
+        assertFalse(store.execute("key-1", request(7L), OrderDto.class, this::createOrder).replayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void aClaimRejectedForAnotherReasonThanTheKeyIsNotRetried() {
+        jdbcTemplate.execute("alter table idempotency_keys add constraint chk_short_hash check (length(request_hash) < 10)");
+        try {
+            assertThrows(DataIntegrityViolationException.class,
+                    () -> newStore().execute("key-1", request(7L), OrderDto.class, this::createOrder));
+            assertEquals(0, executions.get());
+        } finally {
+            jdbcTemplate.execute("alter table idempotency_keys drop constraint chk_short_hash");
+        }
+    }
+
+    @Test
+    void concurrentDuplicatesRunTheRequestOnce() throws Exception {
+        // Two stores stand in for two nodes behind the load balancer
+        List<IdempotencyKeyStore> nodes = List.of(newStore(), newStore());
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<IdempotencyKeyStore.Result<OrderDto>>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                IdempotencyKeyStore node = nodes.get(i % 2);
+                results.add(threads.submit(() -> node.execute("key-1", request(7L), OrderDto.class, () -> {
+                    await(release);
+                    return createOrder();
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            int originals = 0;
+            for (Future<IdempotencyKeyStore.Result<OrderDto>> result : results) {
+                IdempotencyKeyStore.Result<OrderDto> outcome = result.get(10, TimeUnit.SECONDS);
+                assertEquals(1L, outcome.response().getId());
+                originals += outcome.replayed() ? 0 : 1;
+            }
+            assertEquals(1, originals);
+            assertEquals(1, executions.get());
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    private IdempotencyKeyStore newStore() {
+        return new IdempotencyKeyStore(repository, new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                transactionManager, Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofSeconds(5), 100);
+    }
+
+    private OrderDto createOrder() {
+        OrderDto created = request(7L);
+        created.setId((long) executions.incrementAndGet());
+        return created;
+    }
+
+    private static OrderDto request(Long customerId) {
+        OrderDto order = new OrderDto();
+        order.setCustomerId(customerId);
+        order.setOrderDate(null);
+        return order;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.orderservice.service;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.project.orderservice.config.PaginationProperties;
+import com.project.orderservice.dto.InvoiceDto;
+import com.project.orderservice.repository.InvoiceRepository;
+import com.project.orderservice.repository.OrderItemRepository;
+import com.project.orderservice.repository.projection.OrderItemRow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InvoicePdfTest {
+
+    private static final LocalDateTime ISSUED = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private InvoiceRepository invoiceRepository;
+    private OrderItemRepository orderItemRepository;
+    private InvoiceServiceImpl invoiceService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        invoiceRepository = mock(InvoiceRepository.class);
+        orderItemRepository = mock(OrderItemRepository.class);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+        invoiceService = new InvoiceServiceImpl(invoiceRepository, orderItemRepository, new InvoicePdfRenderer(),
+                executor, mock(InvoiceNumberAllocator.class), new PaginationProperties());
+    }
+
+    @Test
+    void invoicePdfListsTheOrderItemsAndTotals() throws Exception {
+        when(orderItemRepository.findRowsByOrderIdIn(List.of(42L))).thenReturn(List.of(
+                new OrderItemRow(42L, 1L, 3L, "Keyboard", 2, 25.0, 50.0)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        invoiceService.writeInvoicePdf(invoice(1L, 42L), out);
+
+        String text = PdfTextExtractor.getTextFromPage(new PdfReader(out.toByteArray()), 1);
+        assertTrue(text.contains("INV-20240301-42"), text);
+        assertTrue(text.contains("Keyboard"), text);
+        assertTrue(text.contains("Total: 57.50"), text);
+    }
+
+    @Test
+    void archiveContainsOnePdfPerInvoiceInIssueOrder() throws Exception {
+        List<InvoiceDto> invoices = new ArrayList<>();
+        for (long i = 1; i <= 40; i++) {
+            invoices.add(invoice(i, 100 + i));
+        }
+        when(invoiceRepository.findPageByIssueDateBefore(eq(ISSUED.plusDays(1)), eq(ISSUED.minusDays(1)), eq(0L), any(Pageable.class)))
+                .thenReturn(invoices);
+        when(orderItemRepository.findRowsByOrderIdIn(anyCollection())).thenReturn(List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        invoiceService.writeInvoicePdfArchive(ISSUED.minusDays(1), ISSUED.plusDays(1), out);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                names.add(entry.getName());
+                assertTrue(new PdfReader(zip.readAllBytes()).getNumberOfPages() > 0);
+            }
+        }
+        assertEquals(invoices.stream().map(invoice -> invoice.getInvoiceNumber() + ".pdf").toList(), names);
+    }
+
+    private static InvoiceDto invoice(Long id, Long orderId) {
+        return new InvoiceDto(id, "INV-20240301-" + orderId, orderId, ISSUED, ISSUED.plusDays(30), 57.5, 7.5, "UNPAID");
+    }
+}
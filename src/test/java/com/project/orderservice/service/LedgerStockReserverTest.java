@@ -0,0 +1,188 @@
+package com.project.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.orderservice.client.InMemoryProductClient;
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.repository.StockLeaseJournalRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class LedgerStockReserverTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void ordersCoveredByTheLeaseMakeNoRemoteCall() {
+        InMemoryProductClient productService = new InMemoryProductClient().addProduct(1L, "Keyboard", 20.0, 100);
+        LedgerStockReserver ledger = new LedgerStockReserver(productService, journal(), meterRegistry, 20, 5);
+
+        // The first order takes a whole lease in its own reservation call
+        assertTrue(reserve(ledger, productService, Map.of(1L, 2), false));
+        assertEquals(1, productService.getReservationCalls());
+        assertEquals(80, productService.getQuantity(1L));
+
+        for (int i = 0; i < 9; i++) {
+            assertTrue(reserve(ledger, productService, Map.of(1L, 2), false));
+        }
+        assertEquals(1, productService.getReservationCalls());
+        assertEquals(0.0, meterRegistry.get("orderservice.stock.ledger.leased").gauge().value());
+
+        // Rolled back and deleted orders give their units back to the lease, not to product-service
+        ledger.restore("order-delete-1", Map.of(1L, 4));
+        assertEquals(4.0, meterRegistry.get("orderservice.stock.ledger.leased").gauge().value());
+        assertEquals(1, productService.getReservationCalls());
+
+        ledger.returnAll();
+        assertEquals(84, productService.getQuantity(1L));
+    }
+
+    @Test
+    void theLastUnitsAreReservedExactlyAndNeverOversold() {
+        InMemoryProductClient productService = new InMemoryProductClient().addProduct(1L, "Keyboard", 20.0, 12);
+        LedgerStockReserver ledger = new LedgerStockReserver(productService, journal(), meterRegistry, 20, 10);
+
+        assertTrue(reserve(ledger, productService, Map.of(1L, 5), false));
+        assertEquals(7, productService.getQuantity(1L));
+        assertEquals(0.0, meterRegistry.get("orderservice.stock.ledger.leased").gauge().value());
+
+        assertThrows(IllegalArgumentException.class, () -> ledger.reserve(Map.of(1L, 8), products(productService, Map.of(1L, 8))));
+        assertEquals(7, productService.getQuantity(1L));
+    }
+
+    @Test
+    void reconciliationKeepsOneLeaseForProductsStillSellingAndReturnsIdleOnes() {
+        InMemoryProductClient productService = new InMemoryProductClient()
+                .addProduct(1L, "Keyboard", 20.0, 1000)
+                .addProduct(2L, "Mouse", 5.0, 1000);
+        LedgerStockReserver ledger = new LedgerStockReserver(productService, journal(), meterRegistry, 50, 10);
+        reserve(ledger, productService, Map.of(1L, 1, 2L, 1), false);
+        // Deleting earlier orders puts 60 keyboards into the lease
+        ledger.restore("order-delete-2", Map.of(1L, 60));
+        assertEquals(950, productService.getQuantity(1L));
+
+        ledger.reconcile();
+        assertEquals(1009, productService.getQuantity(1L));
+        assertEquals(950, productService.getQuantity(2L));
+        assertEquals(99.0, meterRegistry.get("orderservice.stock.ledger.leased").gauge().value());
+
+        // Nothing ordered for an interval: both leases go back
+        ledger.reconcile();
+        assertEquals(1059, productService.getQuantity(1L));
+        assertEquals(999, productService.getQuantity(2L));
+    }
+
+    @Test
+    void concurrentNodesNeverOversellThroughRollbacksDeletesAndReconciliation() throws Exception {
+        int stock = 2000;
+        InMemoryProductClient productService = new InMemoryProductClient();
+        for (long productId = 1; productId <= 3; productId++) {
+            productService.addProduct(productId, "Product " + productId, 10.0, stock);
+        }
+        // Two order-service nodes sharing one product-service
+        List<LedgerStockReserver> nodes = List.of(
+                new LedgerStockReserver(productService, journal(), meterRegistry, 25, 10),
+                new LedgerStockReserver(productService, journal(), new SimpleMeterRegistry(), 25, 10));
+        Map<Long, AtomicInteger> sold = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService threads = Executors.newFixedThreadPool(17);
+        try {
+            Future<?> reconciler = threads.submit(() -> {
+                while (running.get()) {
+                    nodes.forEach(LedgerStockReserver::reconcile);
+                    Thread.onSpinWait();
+                }
+            });
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                LedgerStockReserver node = nodes.get(t % 2);
+                workers.add(threads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 500; i++) {
+                        Map<Long, Integer> quantities = new LinkedHashMap<>();
+                        quantities.put(1L + random.nextInt(3), 1 + random.nextInt(4));
+                        quantities.merge(1L + random.nextInt(3), 1 + random.nextInt(4), Integer::sum);
+                        boolean rollback = random.nextInt(5) == 0;
+                        if (!reserve(node, productService, quantities, rollback)) {
+                            rejected.incrementAndGet();
+                        } else if (!rollback && random.nextInt(10) == 0) {
+                            node.restore("order-delete-" + UUID.randomUUID(), quantities);
+                        } else if (!rollback) {
+                            quantities.forEach((productId, quantity) ->
+                                    sold.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(quantity));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            running.set(false);
+            reconciler.get();
+        } finally {
+            threads.shutdown();
+        }
+        nodes.forEach(LedgerStockReserver::returnAll);
+
+        // The demand exceeds the stock, so products sell out and later orders are turned away
+        assertTrue(rejected.get() > 0);
+        for (long productId = 1; productId <= 3; productId++) {
+            int soldUnits = sold.getOrDefault(productId, new AtomicInteger()).get();
+            assertTrue(soldUnits <= stock, "sold " + soldUnits);
+            assertEquals(stock - soldUnits, productService.getQuantity(productId));
+        }
+    }
+
+    // Plays the part of the order transaction, committing or rolling back after the reservation
+    private static boolean reserve(LedgerStockReserver ledger, InMemoryProductClient productService,
+            Map<Long, Integer> quantities, boolean rollback) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.reserve(quantities, products(productService, quantities));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(rollback
+                        ? TransactionSynchronization.STATUS_ROLLED_BACK
+                        : TransactionSynchronization.STATUS_COMMITTED);
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Journals into a mocked repository: these tests cover the leases themselves, not their persistence
+    private static StockLeaseJournal journal() {
+        return new StockLeaseJournal(mock(StockLeaseJournalRepository.class), mock(PlatformTransactionManager.class), "node-1");
+    }
+
+    private static Map<Long, ProductDto> products(InMemoryProductClient productService, Map<Long, Integer> quantities) {
+        return productService.getProductsByIds(new ArrayList<>(quantities.keySet())).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.orderservice.service;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.orderservice.client.CustomerClient;
+import com.project.orderservice.dto.LoyaltyActivityDto;
+import com.project.orderservice.dto.LoyaltyActivityType;
+import com.project.orderservice.model.LoyaltyOutboxEntry;
+import com.project.orderservice.model.LoyaltyOutboxStatus;
+import com.project.orderservice.repository.LoyaltyOutboxRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Not transactional: the dispatcher commits its own claim and outcome transactions
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoyaltyOutboxDispatcherTest {
+
+    @Autowired
+    private LoyaltyOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CustomerClient customerClient;
+    private LoyaltyOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        customerClient = mock(CustomerClient.class);
+        dispatcher = new LoyaltyOutboxDispatcher(outboxRepository, customerClient, transactionManager,
+                new SimpleMeterRegistry(), 10, Duration.ofMinutes(1), Duration.ofSeconds(5),
+                Duration.ofMinutes(10), Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void deliversEachEntryOnceWithItsReferenceId() {
+        Long first = outboxRepository.save(entry("101", 7L)).getId();
+        Long second = outboxRepository.save(entry("102", 8L)).getId();
+
+        assertFalse(dispatcher.dispatchBatch());
+        dispatcher.dispatchBatch();
+
+        verify(customerClient).addLoyaltyPoints(eq(7L), argThat(activity -> "101".equals(activity.getReferenceId())));
+        verify(customerClient).addLoyaltyPoints(eq(8L), argThat(activity -> "102".equals(activity.getReferenceId())));
+        assertEquals(LoyaltyOutboxStatus.SENT, outboxRepository.findById(first).orElseThrow().getStatus());
+        assertNotNull(outboxRepository.findById(second).orElseThrow().getSentAt());
+    }
+
+    @Test
+    void failedDeliveryIsRetriedAfterBackoffUntilItSucceeds() {
+        Long id = outboxRepository.save(entry("201", 7L)).getId();
+        when(customerClient.addLoyaltyPoints(eq(7L), any(LoyaltyActivityDto.class)))
+                .thenThrow(new IllegalStateException("customer-service timed out"))
+                .thenReturn(null);
+
+        dispatcher.dispatchBatch();
+        LoyaltyOutboxEntry failed = outboxRepository.findById(id).orElseThrow();
+        assertEquals(LoyaltyOutboxStatus.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        // Not due yet
+        dispatcher.dispatchBatch();
+        verify(customerClient, times(1)).addLoyaltyPoints(eq(7L), any(LoyaltyActivityDto.class));
+
+        failed.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(failed);
+        dispatcher.dispatchBatch();
+
+        LoyaltyOutboxEntry delivered = outboxRepository.findById(id).orElseThrow();
+        assertEquals(LoyaltyOutboxStatus.SENT, delivered.getStatus());
+        assertEquals(2, delivered.getAttempts());
+    }
+
+    @Test
+    void activityAlreadyAppliedByCustomerServiceCountsAsDelivered() {
+        Long id = outboxRepository.save(entry("301", 7L)).getId();
+        Request request = Request.create(Request.HttpMethod.POST, "/api/customers/7/loyalty", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        when(customerClient.addLoyaltyPoints(eq(7L), any(LoyaltyActivityDto.class)))
+                .thenThrow(new FeignException.Conflict("Duplicate referenceId", request, null, null));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(LoyaltyOutboxStatus.SENT, outboxRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    private static LoyaltyOutboxEntry entry(String referenceId, Long customerId) {
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        LoyaltyOutboxEntry entry = new LoyaltyOutboxEntry();
+        entry.setReferenceId(referenceId);
+        entry.setCustomerId(customerId);
+        entry.setType(LoyaltyActivityType.PURCHASE);
+        entry.setPoints(100);
+        entry.setAmount(100.0);
+        entry.setDescription("Points awarded for order #" + referenceId);
+        entry.setStatus(LoyaltyOutboxStatus.PENDING);
+        entry.setNextAttemptAt(now);
+        entry.setCreatedAt(now);
+        return entry;
+    }
+}
@@ -0,0 +1,258 @@
+package com.project.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.project.orderservice.client.CustomerClient;
+import com.project.orderservice.client.InMemoryProductClient;
+import com.project.orderservice.client.ProductBatchLoader;
+import com.project.orderservice.config.PaginationProperties;
+import com.project.orderservice.dto.BulkStatusUpdateResponse;
+import com.project.orderservice.dto.CustomerDto;
+import com.project.orderservice.dto.OrderDto;
+import com.project.orderservice.dto.OrderItemDto;
+import com.project.orderservice.dto.StatusUpdateResult;
+import com.project.orderservice.dto.StatusUpdateResult.Outcome;
+import com.project.orderservice.event.OrderCreated;
+import com.project.orderservice.event.OrderDeleted;
+import com.project.orderservice.event.OrderEvent;
+import com.project.orderservice.event.OrderEventBus;
+import com.project.orderservice.event.OrderStatusChanged;
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderItem;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.model.StockRestoreStatus;
+import com.project.orderservice.repository.LoyaltyOutboxRepository;
+import com.project.orderservice.repository.OrderItemRepository;
+import com.project.orderservice.repository.OrderRepository;
+import com.project.orderservice.repository.StockRestoreRepository;
+import com.project.orderservice.repository.projection.OrderRow;
+import com.project.orderservice.repository.projection.OrderStatusRow;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceImplTest {
+    
+    private InMemoryProductClient productClient;
+    private CustomerClient customerClient;
+    private final List<OrderEvent> published = new ArrayList<>();
+    private LoyaltyOutboxRepository loyaltyOutboxRepository;
+    private StockRestoreRepository stockRestoreRepository;
+    private OrderRepository orderRepository;
+    private OrderServiceImpl orderService;
+    
+    @BeforeEach
+    void setUp() {
+        productClient = new InMemoryProductClient()
+                .addProduct(1L, "Keyboard", 20.0, 10)
+                .addProduct(2L, "Mouse", 5.0, 3);
+        
+        orderRepository = mock(OrderRepository.class);
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            long id = 42L;
+            for (Order order : orders) {
+                order.setId(id++);
+            }
+            return orders;
+        });
+        
+        customerClient = mock(CustomerClient.class);
+        CustomerDto customer = new CustomerDto();
+        customer.setId(7L);
+        customer.setFirstName("Ada");
+        customer.setLastName("Lovelace");
+        when(customerClient.getCustomerById(7L)).thenReturn(customer);
+        
+        OrderEventBus orderEventBus = mock(OrderEventBus.class);
+        doAnswer(invocation -> published.add(invocation.getArgument(0))).when(orderEventBus).publish(any(OrderEvent.class));
+        loyaltyOutboxRepository = mock(LoyaltyOutboxRepository.class);
+        stockRestoreRepository = mock(StockRestoreRepository.class);
+        ProductBatchLoader productBatchLoader = new ProductBatchLoader(productClient, Runnable::run, Duration.ofMinutes(5));
+        orderService = new OrderServiceImpl(orderRepository, mock(OrderItemRepository.class), new RemoteStockReserver(productClient),
+                productBatchLoader, customerClient, orderEventBus, loyaltyOutboxRepository,
+                stockRestoreRepository, mock(SalesRollupRecorder.class), new PaginationProperties(), new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void createOrderReservesCombinedQuantitiesInOneCall() {
+        OrderDto created = orderService.createOrder(order(item(1L, 2), item(2L, 1), item(1L, 3)));
+        
+        assertEquals(1, productClient.getReservationCalls());
+        assertEquals(5, productClient.getQuantity(1L));
+        assertEquals(2, productClient.getQuantity(2L));
+        assertEquals(105.0, created.getTotalAmount());
+        assertEquals("Ada Lovelace", created.getCustomerName());
+        assertEquals(List.of(new OrderCreated(42L, 7L, 105.0)), published);
+    }
+    
+    @Test
+    void createOrderLeavesStockUntouchedWhenAnyProductIsShort() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.createOrder(order(item(1L, 2), item(2L, 4))));
+        
+        assertEquals(0, productClient.getReservationCalls());
+        assertEquals(10, productClient.getQuantity(1L));
+        assertEquals(3, productClient.getQuantity(2L));
+    }
+    
+    @Test
+    void createOrdersLooksEachCustomerUpOnceAndReservesTheWholeBatchInOneCall() {
+        List<OrderDto> created = orderService.createOrders(List.of(
+                order(item(1L, 2)), order(item(1L, 3), item(2L, 1)), order(item(2L, 2))));
+        
+        assertEquals(3, created.size());
+        assertEquals(List.of(42L, 43L, 44L), created.stream().map(OrderDto::getId).toList());
+        verify(customerClient, times(1)).getCustomerById(7L);
+        assertEquals(1, productClient.getLookupCalls());
+        assertEquals(1, productClient.getReservationCalls());
+        assertEquals(5, productClient.getQuantity(1L));
+        assertEquals(0, productClient.getQuantity(2L));
+    }
+    
+    @Test
+    void createOrdersRejectsTheWholeBatchWhenCombinedQuantitiesExceedStock() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrders(List.of(
+                order(item(2L, 2)), order(item(2L, 2)))));
+        
+        assertEquals(0, productClient.getReservationCalls());
+        assertEquals(3, productClient.getQuantity(2L));
+    }
+    
+    @Test
+    void updateOrderStatusesAppliesValidTransitionsAndReportsEachId() {
+        LocalDateTime now = LocalDateTime.now();
+        when(orderRepository.findStatusRowsForUpdate(List.of(1L, 2L, 3L, 4L, 5L))).thenReturn(List.of(
+                new OrderStatusRow(1L, 7L, OrderStatus.SHIPPED, 100.0, now, null),
+                new OrderStatusRow(2L, 8L, OrderStatus.PENDING, 50.0, now, null),
+                new OrderStatusRow(3L, 7L, OrderStatus.DELIVERED, 20.0, now, null),
+                new OrderStatusRow(5L, 9L, OrderStatus.SHIPPED, 10.0, now, null)));
+        when(orderRepository.updateStatus(List.of(1L, 5L), OrderStatus.SHIPPED, OrderStatus.DELIVERED)).thenReturn(2);
+        
+        BulkStatusUpdateResponse response = orderService.updateOrderStatuses(List.of(1L, 2L, 3L, 4L, 5L), OrderStatus.DELIVERED);
+        
+        assertEquals(2, response.getUpdatedCount());
+        assertEquals(List.of(Outcome.UPDATED, Outcome.REJECTED, Outcome.UNCHANGED, Outcome.NOT_FOUND, Outcome.UPDATED),
+                response.getResults().stream().map(StatusUpdateResult::getOutcome).toList());
+        assertEquals("From PENDING, order can only move to PROCESSING or CANCELLED", response.getResults().get(1).getMessage());
+        verify(orderRepository, times(1)).updateStatus(anyList(), any(OrderStatus.class), any(OrderStatus.class));
+        verify(loyaltyOutboxRepository).saveAll(argThat(entries -> entries instanceof List<?> list && list.size() == 2));
+        assertEquals(List.of(
+                new OrderStatusChanged(1L, 7L, OrderStatus.SHIPPED, OrderStatus.DELIVERED),
+                new OrderStatusChanged(5L, 9L, OrderStatus.SHIPPED, OrderStatus.DELIVERED)), published);
+    }
+    
+    @Test
+    void statusChangesThroughUpdateOrderAreValidatedAndAwardLoyaltyPoints() {
+        Order pending = order(40L, OrderStatus.PENDING);
+        Order shipped = order(41L, OrderStatus.SHIPPED);
+        when(orderRepository.findById(40L)).thenReturn(Optional.of(pending));
+        when(orderRepository.findById(41L)).thenReturn(Optional.of(shipped));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        OrderDto delivered = new OrderDto();
+        delivered.setStatus(OrderStatus.DELIVERED);
+        
+        assertThrows(IllegalStateException.class, () -> orderService.updateOrder(40L, delivered));
+        assertEquals(OrderStatus.PENDING, pending.getStatus());
+        assertEquals(List.of(), published);
+        
+        orderService.updateOrder(41L, delivered);
+        assertEquals(List.of(new OrderStatusChanged(41L, 7L, OrderStatus.SHIPPED, OrderStatus.DELIVERED)), published);
+        verify(loyaltyOutboxRepository).save(argThat(entry -> "41".equals(entry.getReferenceId())));
+    }
+    
+    @Test
+    void unpagedListingsRefuseMoreOrdersThanTheCapInsteadOfTruncating() {
+        when(orderRepository.findRowsByStatus(eq(OrderStatus.PENDING), any(Pageable.class))).thenAnswer(invocation -> {
+            int limit = invocation.<Pageable>getArgument(1).getPageSize();
+            List<OrderRow> rows = new ArrayList<>();
+            for (long id = 1; id <= limit; id++) {
+                rows.add(new OrderRow(id, 7L, LocalDateTime.now(), OrderStatus.PENDING, 25.0));
+            }
+            return rows;
+        });
+        when(orderRepository.findRowsByStatus(eq(OrderStatus.SHIPPED), any(Pageable.class)))
+                .thenReturn(List.of(new OrderRow(1L, 7L, LocalDateTime.now(), OrderStatus.SHIPPED, 25.0)));
+        
+        IllegalArgumentException refused = assertThrows(IllegalArgumentException.class,
+                () -> orderService.getOrdersByStatus(OrderStatus.PENDING));
+        assertTrue(refused.getMessage().contains("/api/orders/status/PENDING/page"), refused.getMessage());
+        verify(orderRepository).findRowsByStatus(OrderStatus.PENDING, PageRequest.of(0, new PaginationProperties().getMaxListSize() + 1));
+        assertEquals(1, orderService.getOrdersByStatus(OrderStatus.SHIPPED).size());
+    }
+    
+    @Test
+    void deletedOrderStockIsRecordedForRestoreWithTheDelete() {
+        Order order = new Order();
+        order.setId(42L);
+        order.setCustomerId(7L);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(OrderStatus.PENDING);
+        order.addItem(orderItem(1L, 4));
+        order.addItem(orderItem(2L, 1));
+        order.addItem(orderItem(1L, 1));
+        when(orderRepository.findById(42L)).thenReturn(Optional.of(order));
+        
+        orderService.deleteOrder(42L);
+        
+        // Nothing is restored on the request thread; StockRestoreDispatcher delivers the row after commit
+        assertEquals(List.of(new OrderDeleted(42L, 7L)), published);
+        assertEquals(0, productClient.getReservationCalls());
+        verify(stockRestoreRepository).save(argThat(entry -> "order-delete-42".equals(entry.getReferenceId())
+                && entry.getQuantities().equals(Map.of(1L, 5, 2L, 1))
+                && entry.getStatus() == StockRestoreStatus.PENDING));
+    }
+    
+    private static Order order(Long id, OrderStatus status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(7L);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(status);
+        order.setTotalAmount(25.0);
+        return order;
+    }
+    
+    private static OrderDto order(OrderItemDto... items) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setCustomerId(7L);
+        orderDto.setItems(List.of(items));
+        return orderDto;
+    }
+    
+    private static OrderItemDto item(Long productId, int quantity) {
+        OrderItemDto itemDto = new OrderItemDto();
+        itemDto.setProductId(productId);
+        itemDto.setQuantity(quantity);
+        return itemDto;
+    }
+    
+    private static OrderItem orderItem(Long productId, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setPrice(1.0);
+        return item;
+    }
+}
@@ -0,0 +1,192 @@
+package com.project.orderservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.dto.SalesRollupDto;
+import com.project.orderservice.dto.SalesTotalDto;
+import com.project.orderservice.model.Order;
+import com.project.orderservice.model.OrderItem;
+import com.project.orderservice.model.OrderStatus;
+import com.project.orderservice.model.RollupDimension;
+import com.project.orderservice.model.RollupGranularity;
+import com.project.orderservice.repository.OrderRepository;
+import com.project.orderservice.repository.SalesRollupRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+// Not transactional: the recorder only publishes deltas of committed transactions.
+// The upsert is MySQL syntax, so keep H2 in MySQL mode rather than the default embedded replacement.
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:rollups;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SalesRollupRecorder.class, ReportServiceImpl.class})
+class SalesRollupRecorderTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private SalesRollupRecorder recorder;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.flush();
+        salesRollupRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void committedChangesReachTheRollupsOnFlush() {
+        Order first = create(order(7L, DAY.plusHours(9), 10.0, item(1L, 2, 10.0), item(2L, 1, 5.0)));
+        create(order(8L, DAY.plusHours(15), 0.0, item(1L, 1, 10.0)));
+        assertTrue(salesRollupRepository.findAll().isEmpty());
+
+        recorder.flush();
+
+        List<SalesTotalDto> products = totals(RollupDimension.PRODUCT);
+        assertEquals("1", products.get(0).getKey());
+        assertEquals(2, products.get(0).getOrderCount());
+        assertEquals(3, products.get(0).getUnits());
+        assertEquals(30.0, products.get(0).getRevenue());
+        SalesTotalDto pending = totals(RollupDimension.STATUS).get(0);
+        assertEquals(2, pending.getOrderCount());
+        assertEquals(10.0, pending.getDiscount());
+
+        List<SalesRollupDto> hourly = reportService.getSalesRollups(RollupDimension.CUSTOMER, RollupGranularity.HOUR,
+                DAY, DAY.plusDays(1), "7");
+        assertEquals(1, hourly.size());
+        assertEquals(DAY.plusHours(9), hourly.get(0).getBucketStart());
+
+        // Cancelling moves the order to its new status and out of the product and customer rollups
+        transactionTemplate.executeWithoutResult(status -> {
+            Order order = orderRepository.findWithItemsById(first.getId()).orElseThrow();
+            order.setStatus(OrderStatus.CANCELLED);
+            recorder.orderStatusChanged(SalesOrderSnapshot.of(order), OrderStatus.PENDING);
+        });
+        recorder.flush();
+
+        assertEquals(1, totals(RollupDimension.PRODUCT).get(0).getOrderCount());
+        assertEquals(List.of("8"), totals(RollupDimension.CUSTOMER).stream()
+                .filter(total -> total.getOrderCount() > 0).map(SalesTotalDto::getKey).toList());
+        List<SalesTotalDto> statuses = totals(RollupDimension.STATUS);
+        assertEquals(1, statuses.stream().filter(total -> total.getKey().equals("CANCELLED")).findFirst().orElseThrow().getOrderCount());
+        assertEquals(1, statuses.stream().filter(total -> total.getKey().equals("PENDING")).findFirst().orElseThrow().getOrderCount());
+    }
+
+    @Test
+    void rolledBackChangesAreNotRecorded() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Order order = orderRepository.save(order(7L, DAY.plusHours(9), 0.0, item(1L, 1, 10.0)));
+                recorder.orderCreated(SalesOrderSnapshot.of(order));
+                throw new IllegalStateException("rollback");
+            });
+        } catch (IllegalStateException expected) {
+            // rolled back
+        }
+        recorder.flush();
+
+        assertTrue(salesRollupRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void rebuildReproducesTheIncrementalRollups() {
+        create(order(7L, DAY.plusHours(9), 10.0, item(1L, 2, 10.0), item(2L, 1, 5.0)));
+        create(order(8L, DAY.plusHours(15), 0.0, item(1L, 1, 10.0)));
+        create(order(7L, DAY.plusDays(1).plusHours(1), 0.0, item(2L, 4, 5.0)));
+        recorder.flush();
+        List<SalesRollupDto> incremental = reportService.getSalesRollups(RollupDimension.PRODUCT, RollupGranularity.HOUR,
+                DAY, DAY.plusDays(2), null);
+
+        salesRollupRepository.deleteAll();
+        assertEquals(3, reportService.rebuildSalesRollups(DAY.plusHours(12), DAY.plusDays(1).plusHours(2)).getOrdersProcessed());
+
+        assertEquals(incremental, reportService.getSalesRollups(RollupDimension.PRODUCT, RollupGranularity.HOUR,
+                DAY, DAY.plusDays(2), null));
+    }
+
+    @Test
+    void rebuildFailsWithoutTouchingRollupsWhenTheBufferedDeltasCannotBeFlushed() {
+        SalesRollupRecorder failingRecorder = mock(SalesRollupRecorder.class);
+        doThrow(new DataAccessResourceFailureException("database unavailable")).when(failingRecorder).flushOrThrow();
+        SalesRollupRepository rollups = mock(SalesRollupRepository.class);
+        ReportService service = new ReportServiceImpl(rollups, orderRepository, failingRecorder, transactionManager);
+
+        // Rebuilding now would count the still-buffered deltas again once they are flushed
+        assertThrows(DataAccessResourceFailureException.class, () -> service.rebuildSalesRollups(DAY, DAY.plusDays(1)));
+        verifyNoInteractions(rollups);
+    }
+
+    private List<SalesTotalDto> totals(RollupDimension dimension) {
+        return reportService.getSalesTotals(dimension, RollupGranularity.DAY, DAY, DAY.plusDays(1));
+    }
+
+    private Order create(Order order) {
+        return transactionTemplate.execute(status -> {
+            Order saved = orderRepository.save(order);
+            recorder.orderCreated(SalesOrderSnapshot.of(saved));
+            return saved;
+        });
+    }
+
+    private static Order order(Long customerId, LocalDateTime orderDate, double discount, OrderItem... items) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setOrderDate(orderDate);
+        order.setStatus(OrderStatus.PENDING);
+        double total = 0.0;
+        for (OrderItem item : items) {
+            order.addItem(item);
+            total += item.getSubtotal();
+        }
+        order.setDiscountAmount(discount);
+        order.setTotalAmount(total - discount);
+        return order;
+    }
+
+    private static OrderItem item(Long productId, int quantity, double price) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setPrice(price);
+        item.calculateSubtotal();
+        return item;
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.orderservice.client.InMemoryProductClient;
+import com.project.orderservice.dto.ProductDto;
+import com.project.orderservice.repository.StockLeaseJournalRepository;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Not transactional: orders commit or roll back their own transactions, as they would in production
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLeaseJournalTest {
+
+    @Autowired
+    private StockLeaseJournalRepository journalRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        journalRepository.deleteAll();
+    }
+
+    @Test
+    void aRestartedNodeTakesBackItsLeasesAndRestoresCreditThemOnce() {
+        InMemoryProductClient productService = new InMemoryProductClient().addProduct(1L, "Keyboard", 20.0, 100);
+        StockLeaseJournal journal = journal("node-1");
+        LedgerStockReserver ledger = ledger(productService, journal, new SimpleMeterRegistry());
+
+        // The first order leases 20 keyboards; a rolled back order takes nothing from the lease for good
+        order(ledger, productService, Map.of(1L, 2), false);
+        assertThrows(IllegalStateException.class, () -> order(ledger, productService, Map.of(1L, 3), true));
+        assertEquals(80, productService.getQuantity(1L));
+        assertEquals(Map.of(1L, 18L), journal.balances());
+
+        // A retried restore of the same deleted order credits the lease once
+        ledger.restore("order-delete-1", Map.of(1L, 2));
+        ledger.restore("order-delete-1", Map.of(1L, 2));
+        assertEquals(Map.of(1L, 20L), journal.balances());
+
+        // The node dies without returning its lease; another node has nothing to take back
+        SimpleMeterRegistry otherNode = new SimpleMeterRegistry();
+        ledger(productService, journal("node-2"), otherNode).recover();
+        assertEquals(0.0, otherNode.get("orderservice.stock.ledger.leased").gauge().value());
+
+        SimpleMeterRegistry restarted = new SimpleMeterRegistry();
+        LedgerStockReserver recovered = ledger(productService, journal("node-1"), restarted);
+        recovered.recover();
+        assertEquals(20.0, restarted.get("orderservice.stock.ledger.leased").gauge().value());
+
+        // Nothing is ordered after the restart, so reconciliation hands the whole lease back
+        recovered.reconcile();
+        assertEquals(100, productService.getQuantity(1L));
+        assertEquals(Map.of(), journal.balances());
+        // Compaction leaves only the marker of the applied restore
+        assertEquals(1, journalRepository.count());
+    }
+
+    private StockLeaseJournal journal(String nodeId) {
+        return new StockLeaseJournal(journalRepository, transactionManager, nodeId);
+    }
+
+    private static LedgerStockReserver ledger(InMemoryProductClient productService, StockLeaseJournal journal,
+            SimpleMeterRegistry meterRegistry) {
+        return new LedgerStockReserver(productService, journal, meterRegistry, 20, 5);
+    }
+
+    private void order(LedgerStockReserver ledger, InMemoryProductClient productService,
+            Map<Long, Integer> quantities, boolean rollback) {
+        Map<Long, ProductDto> products = productService.getProductsByIds(new ArrayList<>(quantities.keySet())).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ledger.reserve(quantities, products);
+            if (rollback) {
+                throw new IllegalStateException("Order failed after its stock was reserved");
+            }
+        });
+    }
+}
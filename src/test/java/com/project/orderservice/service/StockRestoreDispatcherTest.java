@@ -0,0 +1,108 @@
+package com.project.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.orderservice.client.InMemoryProductClient;
+import com.project.orderservice.exception.ServiceUnavailableException;
+import com.project.orderservice.model.StockRestoreEntry;
+import com.project.orderservice.model.StockRestoreStatus;
+import com.project.orderservice.repository.StockRestoreRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Not transactional: the dispatcher commits its own claim and outcome transactions
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockRestoreDispatcherTest {
+
+    @Autowired
+    private StockRestoreRepository restoreRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        restoreRepository.deleteAll();
+    }
+
+    @Test
+    void restoresEachDeletedOrderAndRemovesItsEntry() {
+        InMemoryProductClient productService = new InMemoryProductClient()
+                .addProduct(1L, "Keyboard", 20.0, 10)
+                .addProduct(2L, "Mouse", 5.0, 3);
+        restoreRepository.save(entry(41L, Map.of(1L, 5, 2L, 1)));
+        restoreRepository.save(entry(42L, Map.of(1L, 2)));
+
+        assertFalse(dispatcher(new RemoteStockReserver(productService)).dispatchBatch());
+
+        assertEquals(2, productService.getReservationCalls());
+        assertEquals(17, productService.getQuantity(1L));
+        assertEquals(4, productService.getQuantity(2L));
+        assertEquals(0, restoreRepository.count());
+    }
+
+    @Test
+    void unavailableProductServiceLeavesTheRestoreForALaterRound() {
+        StockReserver stockReserver = mock(StockReserver.class);
+        doThrow(new ServiceUnavailableException("product-service circuit breaker is open"))
+                .doNothing()
+                .when(stockReserver).restore(eq("order-delete-51"), anyMap());
+        Long first = restoreRepository.save(entry(51L, Map.of(1L, 5))).getId();
+        restoreRepository.save(entry(52L, Map.of(1L, 2)));
+        StockRestoreDispatcher dispatcher = dispatcher(stockReserver);
+
+        // The rest of the batch is not attempted while product-service is unavailable
+        assertFalse(dispatcher.dispatchBatch());
+        verify(stockReserver, never()).restore(eq("order-delete-52"), anyMap());
+        StockRestoreEntry failed = restoreRepository.findById(first).orElseThrow();
+        assertEquals(StockRestoreStatus.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        failed.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        restoreRepository.save(failed);
+        dispatcher.dispatchBatch();
+
+        verify(stockReserver, times(2)).restore(eq("order-delete-51"), eq(Map.of(1L, 5)));
+        assertTrue(restoreRepository.findById(first).isEmpty());
+    }
+
+    private StockRestoreDispatcher dispatcher(StockReserver stockReserver) {
+        return new StockRestoreDispatcher(restoreRepository, stockReserver, transactionManager,
+                new SimpleMeterRegistry(), 10, Duration.ofMinutes(1), Duration.ofSeconds(5), Duration.ofMinutes(10));
+    }
+
+    private static StockRestoreEntry entry(Long orderId, Map<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        StockRestoreEntry entry = new StockRestoreEntry();
+        entry.setReferenceId("order-delete-" + orderId);
+        entry.setOrderId(orderId);
+        entry.setQuantities(new LinkedHashMap<>(quantities));
+        entry.setStatus(StockRestoreStatus.PENDING);
+        entry.setNextAttemptAt(now);
+        entry.setCreatedAt(now);
+        return entry;
+    }
+}
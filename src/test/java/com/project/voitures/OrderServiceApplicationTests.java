@@ -3,7 +3,9 @@ package com.project.voitures;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+import com.project.orderservice.OrderServiceApplication;
+
+@SpringBootTest(classes = OrderServiceApplication.class)
 class OrderServiceApplicationTests {
 
 	@Test